@@ -87,7 +87,8 @@ CREATE TABLE IF NOT EXISTS student_class_assignments (
 
 -- Create scores table with subject support
 CREATE TABLE IF NOT EXISTS scores (
-    id VARCHAR(500) PRIMARY KEY,
+    pk BIGINT AUTO_INCREMENT PRIMARY KEY, -- Narrow surrogate key, copied into every secondary index
+    id VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL, -- Legacy natural-key ID used by the API
     student_id BIGINT,
     teacher_id BIGINT,
     class_id BIGINT,
@@ -96,6 +97,8 @@ CREATE TABLE IF NOT EXISTS scores (
     semester VARCHAR(10) NOT NULL,
     year INT NOT NULL,
     ddgtx TEXT, -- Store as comma-separated string
+    ddgtx_count SMALLINT, -- Number of regular scores in ddgtx, maintained by the application
+    ddgtx_sum INT, -- Sum of regular scores in ddgtx, maintained by the application
     ddggk INT DEFAULT 0,
     ddgck INT DEFAULT 0,
     tbm DECIMAL(3,1) DEFAULT 0.0, -- Changed to DECIMAL for better precision
@@ -106,9 +109,65 @@ CREATE TABLE IF NOT EXISTS scores (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (student_id) REFERENCES students(id) ON DELETE CASCADE,
     FOREIGN KEY (teacher_id) REFERENCES teachers(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_scores_id (id),
     FOREIGN KEY (class_id) REFERENCES classes(id) ON DELETE CASCADE
 );
 
+-- Running TBM aggregates per class subject, maintained by the application on every score write
+CREATE TABLE IF NOT EXISTS class_score_stats (
+    class_name VARCHAR(100) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    year INT NOT NULL,
+    semester VARCHAR(10) NOT NULL,
+    score_count BIGINT NOT NULL DEFAULT 0,
+    graded_count BIGINT NOT NULL DEFAULT 0, -- Scores with TBM above zero
+    tbm_sum_tenths BIGINT NOT NULL DEFAULT 0, -- Sums kept in tenths of a point so they stay exact
+    tbm_sum_sq_tenths BIGINT NOT NULL DEFAULT 0,
+    tbm_min_tenths INT,
+    tbm_max_tenths INT,
+    pass_count BIGINT NOT NULL DEFAULT 0, -- TBM >= 5.0
+    tbm_histogram VARBINARY(404), -- Graded TBM count per tenth of a point, for percentiles
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_name, subject, year, semester)
+);
+
+-- Additive score measures at the finest analytics grain; coarser slices are SUMs over it
+CREATE TABLE IF NOT EXISTS score_rollups (
+    year INT NOT NULL,
+    semester VARCHAR(10) NOT NULL,
+    grade_level INT NOT NULL, -- 0 when the class is unknown
+    class_name VARCHAR(100) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    teacher_id BIGINT NOT NULL, -- 0 when the score has no teacher
+    score_count BIGINT NOT NULL DEFAULT 0,
+    graded_count BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_tenths BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_sq_tenths BIGINT NOT NULL DEFAULT 0,
+    pass_count BIGINT NOT NULL DEFAULT 0,
+    ddgtx_count BIGINT NOT NULL DEFAULT 0,
+    ddgtx_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (year, semester, grade_level, class_name, subject, teacher_id),
+    INDEX idx_score_rollups_subject (subject, year, semester),
+    INDEX idx_score_rollups_teacher (teacher_id, year, semester)
+);
+
+-- Yearly TBM per student and class subject, (HK1 + 2 x HK2) / 3, maintained on every score write
+CREATE TABLE IF NOT EXISTS yearly_results (
+    class_name VARCHAR(100) NOT NULL,
+    year INT NOT NULL,
+    student_id BIGINT NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    student_name VARCHAR(255),
+    hk1_tbm DOUBLE, -- null until semester 1 is graded
+    hk2_tbm DOUBLE,
+    yearly_tbm DOUBLE, -- null unless both semesters are graded
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_name, year, student_id, subject),
+    INDEX idx_yearly_results_subject (class_name, subject, year, yearly_tbm),
+    INDEX idx_yearly_results_student (student_id, year)
+);
+
 -- Create semester_schedules table
 CREATE TABLE IF NOT EXISTS semester_schedules (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -205,20 +264,19 @@ ALTER TABLE student_class_assignments
 -- Scores table indexes (comprehensive indexing for performance)
 ALTER TABLE scores
   ADD INDEX idx_scores_student (student_id),
-  ADD INDEX idx_scores_teacher (teacher_id),
   ADD INDEX idx_scores_class (class_id),
-  ADD INDEX idx_scores_class_name (class_name),
   ADD INDEX idx_scores_subject (subject),
   ADD INDEX idx_scores_year_semester (year, semester),
   ADD INDEX idx_scores_tbm (tbm),
-  ADD INDEX idx_scores_class_subject (class_name, subject),
   ADD INDEX idx_scores_teacher_subject (teacher_id, subject),
-  ADD INDEX idx_scores_class_subject_year_semester (class_name, subject, year, semester),
   ADD INDEX idx_scores_composite (teacher_id, class_name, subject, year, semester),
-  ADD INDEX idx_scores_student_subject (student_id, subject),
   ADD INDEX idx_scores_teacher_class (teacher_id, class_name),
   ADD INDEX idx_scores_student_year_semester (student_id, year, semester),
-  ADD INDEX idx_scores_created_updated (created_at, updated_at);
+  ADD INDEX idx_scores_created_updated (created_at, updated_at),
+  ADD INDEX idx_scores_ddgtx_stats (class_name, subject, year, semester, ddgtx_count, ddgtx_sum),
+  ADD INDEX idx_scores_top_tbm (class_name, subject, year, semester, tbm),
+  ADD INDEX idx_scores_student_trend (student_id, subject, year, semester, tbm),
+  ADD INDEX idx_scores_teacher_updated (teacher_id, updated_at);
 
 -- Semester_schedules table indexes
 ALTER TABLE semester_schedules
@@ -0,0 +1,15 @@
+-- Migrate scores from the VARCHAR(500) natural-key primary key to a BIGINT surrogate key.
+-- The legacy string ID stays as a unique lookup column so API clients are unaffected.
+-- Run once against an existing database created before this change.
+
+USE education_db;
+
+-- Legacy IDs are built from cleaned ASCII parts; this must return 0 before migrating
+SELECT COUNT(*) AS non_ascii_ids FROM scores WHERE id <> CONVERT(id USING ascii);
+
+ALTER TABLE scores
+  DROP PRIMARY KEY,
+  ADD COLUMN pk BIGINT NOT NULL AUTO_INCREMENT FIRST,
+  ADD PRIMARY KEY (pk),
+  MODIFY id VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+  ADD UNIQUE KEY uk_scores_id (id);
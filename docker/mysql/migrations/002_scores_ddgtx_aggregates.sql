@@ -0,0 +1,10 @@
+-- Stored regular-score (ddgtx) aggregates so class statistics can be computed in SQL.
+-- Columns are left NULL here; the application backfills them in batches on startup
+-- (DdgtxAggregateBackfillRunner) and keeps them current on every write.
+
+USE education_db;
+
+ALTER TABLE scores
+  ADD COLUMN ddgtx_count SMALLINT NULL AFTER ddgtx,
+  ADD COLUMN ddgtx_sum INT NULL AFTER ddgtx_count,
+  ADD INDEX idx_scores_ddgtx_stats (class_name, subject, year, semester, ddgtx_count, ddgtx_sum);
@@ -0,0 +1,21 @@
+-- Per-class TBM aggregates, maintained in the same transaction as every score write.
+-- The application fills the table from scores on startup when it is empty
+-- (DerivedScoreDataInitializer).
+
+USE education_db;
+
+CREATE TABLE IF NOT EXISTS class_score_stats (
+    class_name VARCHAR(100) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    year INT NOT NULL,
+    semester VARCHAR(10) NOT NULL,
+    score_count BIGINT NOT NULL DEFAULT 0,
+    graded_count BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_tenths BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_sq_tenths BIGINT NOT NULL DEFAULT 0,
+    tbm_min_tenths INT,
+    tbm_max_tenths INT,
+    pass_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_name, subject, year, semester)
+);
@@ -0,0 +1,11 @@
+-- Index for top-N leaderboards: equality on the class subject, then TBM order,
+-- so "ORDER BY tbm DESC LIMIT k" reads k index entries instead of sorting the class.
+-- Its prefixes serve every lookup the narrower class indexes did, so those are dropped.
+
+USE education_db;
+
+ALTER TABLE scores
+  ADD INDEX idx_scores_top_tbm (class_name, subject, year, semester, tbm),
+  DROP INDEX idx_scores_class_subject_year_semester,
+  DROP INDEX idx_scores_class_subject,
+  DROP INDEX idx_scores_class_name;
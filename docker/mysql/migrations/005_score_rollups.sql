@@ -0,0 +1,25 @@
+-- Pre-aggregated score rollup for school analytics (/api/analytics/rollup).
+-- Maintained incrementally on every score write and fully refreshed on a schedule
+-- (rollup.refresh.cron); filled on startup when empty.
+
+USE education_db;
+
+CREATE TABLE IF NOT EXISTS score_rollups (
+    year INT NOT NULL,
+    semester VARCHAR(10) NOT NULL,
+    grade_level INT NOT NULL, -- 0 when the class is unknown
+    class_name VARCHAR(100) NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    teacher_id BIGINT NOT NULL, -- 0 when the score has no teacher
+    score_count BIGINT NOT NULL DEFAULT 0,
+    graded_count BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_tenths BIGINT NOT NULL DEFAULT 0,
+    tbm_sum_sq_tenths BIGINT NOT NULL DEFAULT 0,
+    pass_count BIGINT NOT NULL DEFAULT 0,
+    ddgtx_count BIGINT NOT NULL DEFAULT 0,
+    ddgtx_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (year, semester, grade_level, class_name, subject, teacher_id),
+    INDEX idx_score_rollups_subject (subject, year, semester),
+    INDEX idx_score_rollups_teacher (teacher_id, year, semester)
+);
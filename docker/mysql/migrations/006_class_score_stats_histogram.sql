@@ -0,0 +1,8 @@
+-- Per-class TBM histogram (101 four-byte counts, one per tenth of a point) on class_score_stats.
+-- Percentiles at class, grade and school level are merged from these histograms.
+-- Existing rows get NULL; the application rebuilds class_score_stats on startup while any
+-- row has no histogram (DerivedScoreDataInitializer).
+
+USE education_db;
+
+ALTER TABLE class_score_stats ADD COLUMN tbm_histogram VARBINARY(404) NULL AFTER pass_count;
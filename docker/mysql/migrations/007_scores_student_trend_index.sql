@@ -0,0 +1,9 @@
+-- Covering index for a student's TBM trend: equality on the student, then subject and
+-- term order, so the whole profile series is one index range scan with no sort.
+-- It has (student_id, subject) as a prefix, so idx_scores_student_subject is dropped.
+
+USE education_db;
+
+ALTER TABLE scores
+  ADD INDEX idx_scores_student_trend (student_id, subject, year, semester, tbm),
+  DROP INDEX idx_scores_student_subject;
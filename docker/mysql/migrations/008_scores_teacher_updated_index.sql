@@ -0,0 +1,9 @@
+-- Index for the export cache fingerprint: COUNT and MAX(updated_at) of a teacher's scores
+-- are answered from the index alone, so checking for a cached export is one tiny query.
+-- It also serves the teacher_id lookups and foreign key, so idx_scores_teacher is dropped.
+
+USE education_db;
+
+ALTER TABLE scores
+  ADD INDEX idx_scores_teacher_updated (teacher_id, updated_at),
+  DROP INDEX idx_scores_teacher;
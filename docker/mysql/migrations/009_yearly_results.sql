@@ -0,0 +1,20 @@
+-- Yearly TBM (TBm CN) per student and class subject, (HK1 + 2 x HK2) / 3.
+-- Maintained in the same transaction as every score write; filled on startup when
+-- empty and rebuilt on demand (POST /api/yearly-results/rebuild).
+
+USE education_db;
+
+CREATE TABLE IF NOT EXISTS yearly_results (
+    class_name VARCHAR(100) NOT NULL,
+    year INT NOT NULL,
+    student_id BIGINT NOT NULL,
+    subject VARCHAR(100) NOT NULL,
+    student_name VARCHAR(255),
+    hk1_tbm DOUBLE, -- null until semester 1 is graded
+    hk2_tbm DOUBLE,
+    yearly_tbm DOUBLE, -- null unless both semesters are graded
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_name, year, student_id, subject),
+    INDEX idx_yearly_results_subject (class_name, subject, year, yearly_tbm),
+    INDEX idx_yearly_results_student (student_id, year)
+);
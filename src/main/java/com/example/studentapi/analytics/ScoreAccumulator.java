@@ -0,0 +1,85 @@
+package com.example.studentapi.analytics;
+
+import com.example.studentapi.dto.AnalyticsGroup;
+import com.example.studentapi.model.ClassScoreStats;
+import com.example.studentapi.model.TbmHistogram;
+
+/**
+ * Mergeable aggregate over score rows. TBM is handled in tenths, so the 101-bin
+ * histogram (0.0 to 10.0) is exact.
+ */
+public class ScoreAccumulator {
+
+    public static final int BINS = TbmHistogram.BINS;
+
+    long scoreCount;
+    long gradedCount;
+    long tbmSumTenths;
+    long tbmSumSqTenths;
+    int tbmMinTenths = Integer.MAX_VALUE;
+    int tbmMaxTenths = Integer.MIN_VALUE;
+    long passCount;
+    long ddgtxCount;
+    long ddgtxSum;
+    final long[] bins;
+
+    public ScoreAccumulator(boolean withHistogram) {
+        this.bins = withHistogram ? new long[BINS] : null;
+    }
+
+    void add(int tbmTenths, int regularCount, int regularSum) {
+        scoreCount++;
+        ddgtxCount += regularCount;
+        ddgtxSum += regularSum;
+        if (tbmTenths <= 0) {
+            return;
+        }
+        gradedCount++;
+        tbmSumTenths += tbmTenths;
+        tbmSumSqTenths += (long) tbmTenths * tbmTenths;
+        if (tbmTenths >= ClassScoreStats.PASS_THRESHOLD_TENTHS) passCount++;
+        if (tbmTenths < tbmMinTenths) tbmMinTenths = tbmTenths;
+        if (tbmTenths > tbmMaxTenths) tbmMaxTenths = tbmTenths;
+        if (bins != null && tbmTenths < BINS) bins[tbmTenths]++;
+    }
+
+    ScoreAccumulator merge(ScoreAccumulator other) {
+        scoreCount += other.scoreCount;
+        gradedCount += other.gradedCount;
+        tbmSumTenths += other.tbmSumTenths;
+        tbmSumSqTenths += other.tbmSumSqTenths;
+        tbmMinTenths = Math.min(tbmMinTenths, other.tbmMinTenths);
+        tbmMaxTenths = Math.max(tbmMaxTenths, other.tbmMaxTenths);
+        passCount += other.passCount;
+        ddgtxCount += other.ddgtxCount;
+        ddgtxSum += other.ddgtxSum;
+        if (bins != null && other.bins != null) {
+            for (int i = 0; i < BINS; i++) bins[i] += other.bins[i];
+        }
+        return this;
+    }
+
+    public long[] getBins() {
+        return bins;
+    }
+
+    public AnalyticsGroup toGroup(String key) {
+        Double average = null;
+        Double standardDeviation = null;
+        if (gradedCount > 0) {
+            double meanTenths = (double) tbmSumTenths / gradedCount;
+            double variance = Math.max((double) tbmSumSqTenths / gradedCount - meanTenths * meanTenths, 0.0);
+            average = round2(meanTenths / 10.0);
+            standardDeviation = round2(Math.sqrt(variance) / 10.0);
+        }
+        return new AnalyticsGroup(key, scoreCount, gradedCount, average, standardDeviation,
+            gradedCount > 0 ? tbmMinTenths / 10.0 : null,
+            gradedCount > 0 ? tbmMaxTenths / 10.0 : null,
+            gradedCount > 0 ? round2((double) passCount / gradedCount) : 0.0,
+            ddgtxCount > 0 ? round2((double) ddgtxSum / ddgtxCount) : null);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
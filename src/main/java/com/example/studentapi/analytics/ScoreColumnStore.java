@@ -0,0 +1,525 @@
+package com.example.studentapi.analytics;
+
+import com.example.studentapi.dto.AnalyticsFilter;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.RegularScores;
+import com.example.studentapi.model.RollupDimension;
+import com.example.studentapi.repository.ClassRepository;
+import com.example.studentapi.repository.ScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-optimized, in-memory copy of the scores table for analytics.
+ * Each field is a primitive array (class, subject and semester dictionary-encoded, TBM as float,
+ * regular-score count and sum packed into one long), so filters and aggregates are tight scans
+ * that are split across the fork-join pool. Loaded on startup, kept current from
+ * ScoreChangedEvent after commit, and rebuilt nightly to drop deleted rows.
+ * The OLTP path never reads from here.
+ */
+@Component
+public class ScoreColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreColumnStore.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    // Rows per fork-join leaf
+    private static final int SPLIT_THRESHOLD = 16 * 1024;
+    private static final int NO_MATCH = -2;
+    private static final int ANY = -1;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(0);
+    private volatile boolean ready;
+
+    // Events seen while a reload is reading the table; replayed onto the new snapshot
+    private List<ScoreChangedEvent> pendingEvents;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reload();
+    }
+
+    @Scheduled(cron = "${analytics.reload.cron:0 45 2 * * *}")
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Columns loaded;
+        try {
+            loaded = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns.gradeLevels.forEach(loaded.gradeLevels::putIfAbsent);
+            for (ScoreChangedEvent event : pendingEvents) {
+                apply(loaded, event);
+            }
+            pendingEvents = null;
+            columns = loaded;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded analytics column store: {} scores in {} ms", loaded.liveRows,
+            System.currentTimeMillis() - started);
+    }
+
+    private Columns load() {
+        Map<String, Integer> gradeLevels = new HashMap<>();
+        for (Object[] row : classRepository.findGradeLevelKeys()) {
+            if (row[0] != null && row[1] != null && row[2] != null) {
+                gradeLevels.put(gradeLevelKey((String) row[0], ((Number) row[1]).intValue()), ((Number) row[2]).intValue());
+            }
+        }
+
+        Columns loaded = new Columns(LOAD_BATCH_SIZE);
+        loaded.gradeLevels.putAll(gradeLevels);
+        long afterPk = 0;
+        List<Object[]> batch;
+        do {
+            batch = scoreRepository.findAnalyticsColumns(afterPk, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                afterPk = ((Number) row[0]).longValue();
+                int ddgtxCount;
+                long ddgtxSum;
+                if (row[9] != null) {
+                    ddgtxCount = ((Number) row[9]).intValue();
+                    ddgtxSum = row[10] != null ? ((Number) row[10]).longValue() : 0L;
+                } else {
+                    // Aggregates not backfilled yet
+                    RegularScores regular = RegularScores.parse((String) row[11]);
+                    ddgtxCount = regular.count();
+                    ddgtxSum = regular.sum();
+                }
+                loaded.upsert((String) row[1], (Long) row[2], (Long) row[3], (String) row[4], (String) row[5],
+                    (Integer) row[6], (String) row[7], (Double) row[8], ddgtxCount, ddgtxSum);
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return loaded;
+    }
+
+    // After commit, so rolled-back writes never reach the snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreChanged(ScoreChangedEvent event) {
+        ScoreSnapshot after = event.getAfter();
+        if (after != null && after.getClassName() != null && after.getYear() != null) {
+            resolveGradeLevel(after.getClassName(), after.getYear());
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+            apply(columns, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Columns target, ScoreChangedEvent event) {
+        ScoreSnapshot before = event.getBefore();
+        ScoreSnapshot after = event.getAfter();
+        if (after == null) {
+            if (before != null) {
+                target.remove(before.getId());
+            }
+            return;
+        }
+        target.upsert(after.getId(), after.getStudentId(), after.getTeacherId(), after.getClassName(),
+            after.getSubject(), after.getYear(), after.getSemester(), after.getTbm(),
+            after.getDdgtxCount(), after.getDdgtxSum());
+    }
+
+    // Looked up outside the write lock; classes created after the load are cached on first use
+    private void resolveGradeLevel(String className, int year) {
+        String key = gradeLevelKey(className, year);
+        lock.readLock().lock();
+        try {
+            if (columns.gradeLevels.containsKey(key)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Integer> found = classRepository.findGradeLevels(className, year);
+        int gradeLevel = found.isEmpty() || found.get(0) == null ? 0 : found.get(0);
+        lock.writeLock().lock();
+        try {
+            columns.gradeLevels.putIfAbsent(key, gradeLevel);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Aggregates all scores matching the filter.
+     *
+     * @param filter optional filters, null fields match everything
+     * @param withHistogram whether to fill the 101-bin TBM histogram
+     */
+    public ScoreAccumulator aggregate(AnalyticsFilter filter, boolean withHistogram) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            Predicate predicate = new Predicate(c, filter);
+            if (predicate.matchesNothing) {
+                return new ScoreAccumulator(withHistogram);
+            }
+            return ForkJoinPool.commonPool().invoke(new AggregateTask(c, predicate, withHistogram, 0, c.size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates matching scores per value of a dimension, ordered by that value.
+     */
+    public Map<String, ScoreAccumulator> aggregateBy(AnalyticsFilter filter, RollupDimension dimension) {
+        return group(filter, new DimensionKey(dimension));
+    }
+
+    /**
+     * Aggregates matching scores per year and semester, in chronological order.
+     * Keys are "year/semester".
+     */
+    public Map<String, ScoreAccumulator> aggregateByTerm(AnalyticsFilter filter) {
+        return group(filter, new TermKey());
+    }
+
+    private Map<String, ScoreAccumulator> group(AnalyticsFilter filter, GroupKey groupKey) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            Predicate predicate = new Predicate(c, filter);
+            Map<String, ScoreAccumulator> result = new LinkedHashMap<>();
+            if (predicate.matchesNothing) {
+                return result;
+            }
+            Map<Long, ScoreAccumulator> groups =
+                ForkJoinPool.commonPool().invoke(new GroupTask(c, predicate, groupKey, 0, c.size));
+
+            List<Map.Entry<Long, ScoreAccumulator>> entries = new ArrayList<>(groups.entrySet());
+            entries.sort((a, b) -> groupKey.compare(c, a.getKey(), b.getKey()));
+            for (Map.Entry<Long, ScoreAccumulator> entry : entries) {
+                result.put(groupKey.label(c, entry.getKey()), entry.getValue());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String gradeLevelKey(String className, int year) {
+        return className + ':' + year;
+    }
+
+    // ========== Storage ==========
+
+    private static final class Columns {
+        final StringDictionary classNames = new StringDictionary();
+        final StringDictionary subjects = new StringDictionary();
+        final StringDictionary semesters = new StringDictionary();
+        final Map<String, Integer> rowsById = new HashMap<>();
+        final Map<String, Integer> gradeLevels = new HashMap<>();
+
+        int[] classCode;
+        int[] subjectCode;
+        byte[] semesterCode;
+        int[] year;
+        byte[] gradeLevel;
+        float[] tbm;
+        // Regular-score count in the high 32 bits, sum in the low 32 bits
+        long[] ddgtx;
+        long[] studentId;
+        long[] teacherId;
+        boolean[] live;
+        int size;
+        int liveRows;
+
+        Columns(int capacity) {
+            allocate(Math.max(capacity, 16));
+        }
+
+        private void allocate(int capacity) {
+            classCode = classCode == null ? new int[capacity] : Arrays.copyOf(classCode, capacity);
+            subjectCode = subjectCode == null ? new int[capacity] : Arrays.copyOf(subjectCode, capacity);
+            semesterCode = semesterCode == null ? new byte[capacity] : Arrays.copyOf(semesterCode, capacity);
+            year = year == null ? new int[capacity] : Arrays.copyOf(year, capacity);
+            gradeLevel = gradeLevel == null ? new byte[capacity] : Arrays.copyOf(gradeLevel, capacity);
+            tbm = tbm == null ? new float[capacity] : Arrays.copyOf(tbm, capacity);
+            ddgtx = ddgtx == null ? new long[capacity] : Arrays.copyOf(ddgtx, capacity);
+            studentId = studentId == null ? new long[capacity] : Arrays.copyOf(studentId, capacity);
+            teacherId = teacherId == null ? new long[capacity] : Arrays.copyOf(teacherId, capacity);
+            live = live == null ? new boolean[capacity] : Arrays.copyOf(live, capacity);
+        }
+
+        void upsert(String id, Long student, Long teacher, String className, String subject,
+                    Integer scoreYear, String semester, Double scoreTbm, int regularCount, long regularSum) {
+            if (id == null) {
+                return;
+            }
+            Integer row = rowsById.get(id);
+            if (row == null) {
+                if (size == classCode.length) {
+                    allocate(size * 2);
+                }
+                row = size++;
+                rowsById.put(id, row);
+                liveRows++;
+            }
+            Integer grade = className != null && scoreYear != null ? gradeLevels.get(gradeLevelKey(className, scoreYear)) : null;
+            classCode[row] = classNames.encode(className);
+            subjectCode[row] = subjects.encode(subject);
+            semesterCode[row] = (byte) semesters.encode(semester);
+            year[row] = scoreYear != null ? scoreYear : 0;
+            gradeLevel[row] = (byte) (grade != null ? grade : 0);
+            tbm[row] = scoreTbm != null ? scoreTbm.floatValue() : Float.NaN;
+            ddgtx[row] = ((long) regularCount << 32) | (regularSum & 0xFFFFFFFFL);
+            studentId[row] = student != null ? student : 0L;
+            teacherId[row] = teacher != null ? teacher : 0L;
+            live[row] = true;
+        }
+
+        void remove(String id) {
+            Integer row = id != null ? rowsById.remove(id) : null;
+            if (row != null) {
+                live[row] = false;
+                liveRows--;
+            }
+        }
+    }
+
+    // Filter compiled to codes once per query; a value the dictionaries never saw matches nothing
+    private static final class Predicate {
+        final int year;
+        final int semester;
+        final int gradeLevel;
+        final int classCode;
+        final int subjectCode;
+        final long teacherId;
+        final long studentId;
+        final boolean matchesNothing;
+
+        Predicate(Columns c, AnalyticsFilter filter) {
+            AnalyticsFilter f = filter != null ? filter : new AnalyticsFilter();
+            year = f.getYear() != null ? f.getYear() : ANY;
+            gradeLevel = f.getGradeLevel() != null ? f.getGradeLevel() : ANY;
+            semester = f.getSemester() != null ? code(c.semesters, f.getSemester()) : ANY;
+            classCode = f.getClassName() != null ? code(c.classNames, f.getClassName()) : ANY;
+            subjectCode = f.getSubject() != null ? code(c.subjects, f.getSubject()) : ANY;
+            teacherId = f.getTeacherId() != null ? f.getTeacherId() : ANY;
+            studentId = f.getStudentId() != null ? f.getStudentId() : ANY;
+            matchesNothing = semester == NO_MATCH || classCode == NO_MATCH || subjectCode == NO_MATCH;
+        }
+
+        private static int code(StringDictionary dictionary, String value) {
+            int code = dictionary.lookup(value);
+            return code == StringDictionary.MISSING ? NO_MATCH : code;
+        }
+
+        boolean matches(Columns c, int row) {
+            return c.live[row]
+                && (year == ANY || c.year[row] == year)
+                && (semester == ANY || c.semesterCode[row] == semester)
+                && (gradeLevel == ANY || c.gradeLevel[row] == gradeLevel)
+                && (classCode == ANY || c.classCode[row] == classCode)
+                && (subjectCode == ANY || c.subjectCode[row] == subjectCode)
+                && (teacherId == ANY || c.teacherId[row] == teacherId)
+                && (studentId == ANY || c.studentId[row] == studentId);
+        }
+    }
+
+    private static void accumulate(Columns c, int row, ScoreAccumulator acc) {
+        float value = c.tbm[row];
+        int tenths = Float.isNaN(value) ? 0 : Math.round(value * 10);
+        long packed = c.ddgtx[row];
+        acc.add(tenths, (int) (packed >>> 32), (int) packed);
+    }
+
+    private static final class AggregateTask extends RecursiveTask<ScoreAccumulator> {
+        private final Columns c;
+        private final Predicate predicate;
+        private final boolean withHistogram;
+        private final int from;
+        private final int to;
+
+        AggregateTask(Columns c, Predicate predicate, boolean withHistogram, int from, int to) {
+            this.c = c;
+            this.predicate = predicate;
+            this.withHistogram = withHistogram;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreAccumulator compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                ScoreAccumulator acc = new ScoreAccumulator(withHistogram);
+                for (int row = from; row < to; row++) {
+                    if (predicate.matches(c, row)) {
+                        accumulate(c, row, acc);
+                    }
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(c, predicate, withHistogram, from, mid);
+            left.fork();
+            ScoreAccumulator right = new AggregateTask(c, predicate, withHistogram, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class GroupTask extends RecursiveTask<Map<Long, ScoreAccumulator>> {
+        private final Columns c;
+        private final Predicate predicate;
+        private final GroupKey groupKey;
+        private final int from;
+        private final int to;
+
+        GroupTask(Columns c, Predicate predicate, GroupKey groupKey, int from, int to) {
+            this.c = c;
+            this.predicate = predicate;
+            this.groupKey = groupKey;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, ScoreAccumulator> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Map<Long, ScoreAccumulator> groups = new HashMap<>();
+                for (int row = from; row < to; row++) {
+                    if (predicate.matches(c, row)) {
+                        accumulate(c, row, groups.computeIfAbsent(groupKey.key(c, row), k -> new ScoreAccumulator(false)));
+                    }
+                }
+                return groups;
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask left = new GroupTask(c, predicate, groupKey, from, mid);
+            left.fork();
+            Map<Long, ScoreAccumulator> right = new GroupTask(c, predicate, groupKey, mid, to).compute();
+            Map<Long, ScoreAccumulator> merged = left.join();
+            right.forEach((key, acc) -> merged.merge(key, acc, ScoreAccumulator::merge));
+            return merged;
+        }
+    }
+
+    // ========== Grouping keys ==========
+
+    private interface GroupKey {
+        long key(Columns c, int row);
+
+        String label(Columns c, long key);
+
+        int compare(Columns c, long a, long b);
+    }
+
+    private static final class DimensionKey implements GroupKey {
+        private final RollupDimension dimension;
+
+        DimensionKey(RollupDimension dimension) {
+            this.dimension = dimension;
+        }
+
+        @Override
+        public long key(Columns c, int row) {
+            switch (dimension) {
+                case YEAR: return c.year[row];
+                case SEMESTER: return c.semesterCode[row];
+                case GRADE_LEVEL: return c.gradeLevel[row];
+                case CLASS_NAME: return c.classCode[row];
+                case SUBJECT: return c.subjectCode[row];
+                default: return c.teacherId[row];
+            }
+        }
+
+        @Override
+        public String label(Columns c, long key) {
+            switch (dimension) {
+                case SEMESTER: return c.semesters.decode((int) key);
+                case CLASS_NAME: return c.classNames.decode((int) key);
+                case SUBJECT: return c.subjects.decode((int) key);
+                default: return String.valueOf(key);
+            }
+        }
+
+        @Override
+        public int compare(Columns c, long a, long b) {
+            switch (dimension) {
+                case SEMESTER:
+                case CLASS_NAME:
+                case SUBJECT:
+                    return String.valueOf(label(c, a)).compareTo(String.valueOf(label(c, b)));
+                default:
+                    return Long.compare(a, b);
+            }
+        }
+    }
+
+    private static final class TermKey implements GroupKey {
+        @Override
+        public long key(Columns c, int row) {
+            return ((long) c.year[row] << 8) | (c.semesterCode[row] & 0xFF);
+        }
+
+        @Override
+        public String label(Columns c, long key) {
+            return (key >> 8) + "/" + c.semesters.decode((int) (key & 0xFF));
+        }
+
+        @Override
+        public int compare(Columns c, long a, long b) {
+            int byYear = Long.compare(a >> 8, b >> 8);
+            return byYear != 0 ? byYear
+                : String.valueOf(c.semesters.decode((int) (a & 0xFF))).compareTo(String.valueOf(c.semesters.decode((int) (b & 0xFF))));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.studentapi.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for low-cardinality string columns (class names, subjects).
+ * Codes are dense ints starting at 0 and are never reused. Not thread-safe; guarded by the store lock.
+ */
+class StringDictionary {
+
+    static final int MISSING = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    // Code of an existing value, MISSING when it was never seen (a filter that matches nothing)
+    int lookup(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : MISSING;
+    }
+
+    String decode(int code) {
+        return code >= 0 && code < values.size() ? values.get(code) : null;
+    }
+}
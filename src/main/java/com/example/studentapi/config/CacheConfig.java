@@ -0,0 +1,13 @@
+package com.example.studentapi.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    // Cache names; entries are evicted from ScoreChangedEvent listeners when scores change
+    public static final String CLASS_RANKINGS = "classRankings";
+    public static final String GRADE_RANKINGS = "gradeRankings";
+    public static final String STUDENT_TRENDS = "studentTrends";
+}
@@ -0,0 +1,39 @@
+package com.example.studentapi.config;
+
+import com.example.studentapi.service.ScoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills ddgtx_count/ddgtx_sum for score rows written before those columns existed
+ * (see docker/mysql/migrations/002_scores_ddgtx_aggregates.sql). Each batch runs in
+ * its own transaction; once every row is filled this is a single empty query.
+ */
+@Component
+public class DdgtxAggregateBackfillRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DdgtxAggregateBackfillRunner.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ScoreService scoreService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int updated;
+        do {
+            updated = scoreService.backfillDdgtxAggregates(BATCH_SIZE);
+            total += updated;
+        } while (updated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Backfilled ddgtx aggregates for {} scores", total);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.studentapi.config;
+
+import com.example.studentapi.repository.ClassScoreStatsRepository;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.repository.ScoreRollupRepository;
+import com.example.studentapi.repository.YearlyResultRepository;
+import com.example.studentapi.service.ClassScoreStatsService;
+import com.example.studentapi.service.RollupService;
+import com.example.studentapi.service.YearlyResultService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the tables derived from scores (class_score_stats, score_rollups, yearly_results) when
+ * they are empty, e.g. right after they are created or when scores were loaded directly with SQL.
+ * class_score_stats is also rebuilt while any row still lacks its TBM histogram.
+ * Afterwards they are kept current by ScoreChangedEvent.
+ */
+@Component
+public class DerivedScoreDataInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(DerivedScoreDataInitializer.class);
+
+    @Autowired
+    private ClassScoreStatsService classScoreStatsService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private YearlyResultService yearlyResultService;
+
+    @Autowired
+    private ClassScoreStatsRepository statsRepository;
+
+    @Autowired
+    private ScoreRollupRepository rollupRepository;
+
+    @Autowired
+    private YearlyResultRepository yearlyResultRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (scoreRepository.count() == 0) {
+            return;
+        }
+        if (statsRepository.count() == 0 || statsRepository.existsByTbmHistogramIsNull()) {
+            int rows = classScoreStatsService.rebuildAll();
+            log.info("Built class score statistics for {} class subjects", rows);
+        }
+        if (rollupRepository.count() == 0) {
+            rollupService.refreshAll();
+        }
+        if (yearlyResultRepository.count() == 0) {
+            int rows = yearlyResultService.rebuildAll();
+            log.info("Built yearly results for {} student subjects", rows);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.studentapi.controller;
+
+import com.example.studentapi.dto.AnalyticsFilter;
+import com.example.studentapi.dto.RollupRow;
+import com.example.studentapi.model.RollupDimension;
+import com.example.studentapi.service.AnalyticsService;
+import com.example.studentapi.service.ClassScoreStatsService;
+import com.example.studentapi.service.RollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Analytics", description = "School-wide score analytics APIs")
+public class AnalyticsController {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ClassScoreStatsService classScoreStatsService;
+
+    @Operation(summary = "Slice the score rollup",
+               description = "Group by any of year, semester, gradeLevel, className, subject, teacherId (comma-separated groupBy) "
+                           + "and filter by passing the same names as query parameters, e.g. ?groupBy=gradeLevel,subject&year=2024&semester=1")
+    @GetMapping("/rollup")
+    public ResponseEntity<?> rollup(
+            @RequestParam(required = false) String groupBy,
+            @RequestParam Map<String, String> params) {
+
+        try {
+            List<RollupDimension> dimensions = new ArrayList<>();
+            if (groupBy != null && !groupBy.trim().isEmpty()) {
+                for (String name : groupBy.split(",")) {
+                    RollupDimension dimension = RollupDimension.fromParamName(name.trim());
+                    if (!dimensions.contains(dimension)) {
+                        dimensions.add(dimension);
+                    }
+                }
+            }
+
+            Map<RollupDimension, String> filters = new EnumMap<>(RollupDimension.class);
+            for (RollupDimension dimension : RollupDimension.values()) {
+                String value = params.get(dimension.getParamName());
+                if (value != null && !value.trim().isEmpty()) {
+                    filters.put(dimension, value.trim());
+                }
+            }
+
+            List<RollupRow> rows = rollupService.query(filters, dimensions);
+            return ResponseEntity.ok(rows);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ========== In-memory analytics (filters: year, semester, gradeLevel, className, subject, teacherId, studentId) ==========
+
+    @Operation(summary = "Aggregate TBM statistics of the filtered scores")
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary(@ModelAttribute AnalyticsFilter filter) {
+        try {
+            return ResponseEntity.ok(analyticsService.summarize(filter));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "TBM histogram (0.1-point bins) and grade-band counts of the filtered scores")
+    @GetMapping("/distribution")
+    public ResponseEntity<?> distribution(@ModelAttribute AnalyticsFilter filter) {
+        try {
+            return ResponseEntity.ok(analyticsService.getDistribution(filter));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "TBM statistics per year and semester of the filtered scores")
+    @GetMapping("/trend")
+    public ResponseEntity<?> trend(@ModelAttribute AnalyticsFilter filter) {
+        try {
+            return ResponseEntity.ok(analyticsService.getTrend(filter));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Compare TBM statistics across one dimension",
+               description = "groupBy is one of year, semester, gradeLevel, className, subject, teacherId")
+    @GetMapping("/compare")
+    public ResponseEntity<?> compare(
+            @RequestParam String groupBy,
+            @ModelAttribute AnalyticsFilter filter) {
+
+        try {
+            RollupDimension dimension = RollupDimension.fromParamName(groupBy.trim());
+            return ResponseEntity.ok(analyticsService.compare(filter, dimension));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ========== TBM percentiles (merged class histograms; subject omitted = all subjects) ==========
+
+    @Operation(summary = "TBM percentiles of a class")
+    @GetMapping("/percentiles/class/{className}/year/{year}/semester/{semester}")
+    public ResponseEntity<?> classPercentiles(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @RequestParam(required = false) String subject) {
+
+        return ResponseEntity.ok(classScoreStatsService.getClassPercentiles(className, subject, year, semester));
+    }
+
+    @Operation(summary = "TBM percentiles of a grade level")
+    @GetMapping("/percentiles/grade/{gradeLevel}/year/{year}/semester/{semester}")
+    public ResponseEntity<?> gradePercentiles(
+            @PathVariable int gradeLevel,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @RequestParam(required = false) String subject) {
+
+        return ResponseEntity.ok(classScoreStatsService.getGradePercentiles(gradeLevel, subject, year, semester));
+    }
+
+    @Operation(summary = "TBM percentiles of the whole school")
+    @GetMapping("/percentiles/school/year/{year}/semester/{semester}")
+    public ResponseEntity<?> schoolPercentiles(
+            @PathVariable int year,
+            @PathVariable String semester,
+            @RequestParam(required = false) String subject) {
+
+        return ResponseEntity.ok(classScoreStatsService.getSchoolPercentiles(subject, year, semester));
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.studentapi.controller;
 
+import com.example.studentapi.dto.RosterEntryView;
+import com.example.studentapi.dto.SchoolClassView;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.dto.TeacherAssignmentView;
 import com.example.studentapi.model.SchoolClass;
 import com.example.studentapi.model.TeacherClassAssignment;
 import com.example.studentapi.model.StudentClassAssignment;
@@ -8,6 +12,8 @@ import com.example.studentapi.service.AuthorizationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +27,8 @@ import java.util.Map;
 @Tag(name = "Class Management", description = "APIs for managing classes and assignments")
 public class ClassController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private SchoolClassService classService;
     
@@ -36,15 +44,15 @@ public class ClassController {
 
     @Operation(summary = "Get all classes")
     @GetMapping
-    public ResponseEntity<List<SchoolClass>> getAllClasses() {
-        List<SchoolClass> classes = classService.findAllActive();
+    public ResponseEntity<List<SchoolClassView>> getAllClasses() {
+        List<SchoolClassView> classes = classService.findAllActiveViews();
         return ResponseEntity.ok(classes);
     }
 
     @Operation(summary = "Get class by ID")
     @GetMapping("/{id}")
-    public ResponseEntity<SchoolClass> getClassById(@PathVariable Long id) {
-        SchoolClass classEntity = classService.findById(id);
+    public ResponseEntity<SchoolClassView> getClassById(@PathVariable Long id) {
+        SchoolClassView classEntity = classService.findViewById(id);
         return classEntity != null ? ResponseEntity.ok(classEntity) : ResponseEntity.notFound().build();
     }
 
@@ -92,8 +100,8 @@ public class ClassController {
 
     @Operation(summary = "Get teacher's assigned classes")
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<TeacherClassAssignment>> getTeacherClasses(@PathVariable Long teacherId) {
-        List<TeacherClassAssignment> assignments = authorizationService.getTeacherClassAssignments(teacherId);
+    public ResponseEntity<List<TeacherAssignmentView>> getTeacherClasses(@PathVariable Long teacherId) {
+        List<TeacherAssignmentView> assignments = authorizationService.getTeacherClassAssignmentViews(teacherId);
         return ResponseEntity.ok(assignments);
     }
 
@@ -113,17 +121,84 @@ public class ClassController {
             ));
         }
         
-        List<StudentClassAssignment> students = classService.getStudentsInClass(classId, academicYear, semester);
+        List<RosterEntryView> students = classService.getRosterForClass(classId, academicYear, semester);
+        return ResponseEntity.ok(students);
+    }
+
+    @Operation(summary = "Get teachers of a class for a term")
+    @GetMapping("/{classId}/teachers")
+    public ResponseEntity<List<TeacherAssignmentView>> getTeachersInClass(
+            @PathVariable Long classId,
+            @RequestParam int academicYear,
+            @RequestParam String semester) {
+        
+        return ResponseEntity.ok(classService.getTeachersInClass(classId, academicYear, semester));
+    }
+
+    @Operation(summary = "Get active teacher assignments of a class (paginated)")
+    @GetMapping("/{classId}/teacher-assignments")
+    public ResponseEntity<?> getClassTeacherAssignments(
+            @PathVariable Long classId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        if (!isValidPage(page, size)) {
+            return invalidPage();
+        }
+        return ResponseEntity.ok(classService.getTeacherAssignmentsPage(classId, PageRequest.of(page, size)));
+    }
+
+    @Operation(summary = "Get active student assignments of a class (paginated)")
+    @GetMapping("/{classId}/student-assignments")
+    public ResponseEntity<?> getClassStudentAssignments(
+            @PathVariable Long classId,
+            @RequestParam Long teacherId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        if (!authorizationService.canTeacherAccessClass(teacherId, classId)) {
+            return ResponseEntity.status(403).body(Map.of(
+                "error", "Access denied",
+                "message", "Teacher is not authorized to view students in this class"
+            ));
+        }
+        if (!isValidPage(page, size)) {
+            return invalidPage();
+        }
+        
+        Page<RosterEntryView> students = classService.getStudentAssignmentsPage(classId, PageRequest.of(page, size));
         return ResponseEntity.ok(students);
     }
 
+    @Operation(summary = "Get scores of a class (paginated)")
+    @GetMapping("/{classId}/scores")
+    public ResponseEntity<?> getClassScores(
+            @PathVariable Long classId,
+            @RequestParam Long teacherId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        if (!authorizationService.canTeacherAccessClass(teacherId, classId)) {
+            return ResponseEntity.status(403).body(Map.of(
+                "error", "Access denied",
+                "message", "Teacher is not authorized to view scores in this class"
+            ));
+        }
+        if (!isValidPage(page, size)) {
+            return invalidPage();
+        }
+        
+        Page<ScoreView> scores = classService.getScoresPage(classId, PageRequest.of(page, size));
+        return ResponseEntity.ok(scores);
+    }
+
     @Operation(summary = "Get classes by academic year and semester")
     @GetMapping("/by-year-semester")
-    public ResponseEntity<List<SchoolClass>> getClassesByYearAndSemester(
+    public ResponseEntity<List<SchoolClassView>> getClassesByYearAndSemester(
             @RequestParam int academicYear,
             @RequestParam String semester) {
         
-        List<SchoolClass> classes = classService.findByAcademicYearAndSemester(academicYear, semester);
+        List<SchoolClassView> classes = classService.findViewsByAcademicYearAndSemester(academicYear, semester);
         return ResponseEntity.ok(classes);
     }
 
@@ -176,4 +251,13 @@ public class ClassController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static boolean isValidPage(int page, int size) {
+        return page >= 0 && size >= 1 && size <= MAX_PAGE_SIZE;
+    }
+
+    private static ResponseEntity<?> invalidPage() {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "Page must be 0 or more and size between 1 and " + MAX_PAGE_SIZE));
+    }
+}
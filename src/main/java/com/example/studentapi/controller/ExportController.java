@@ -0,0 +1,114 @@
+package com.example.studentapi.controller;
+
+import com.example.studentapi.dto.ExportJobStatus;
+import com.example.studentapi.service.ExportJobService;
+import com.example.studentapi.util.ExcelHelper;
+import com.example.studentapi.util.FileResponseWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Export Jobs", description = "Background score exports: submit, poll status, download")
+public class ExportController {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Operation(summary = "Start an export of the teacher's scores",
+               description = "Returns 202 with the job; the same export already in progress is returned instead of a new job")
+    @PostMapping("/scores")
+    public ResponseEntity<?> submitTeacherExport(@RequestHeader("Teacher-Id") String teacherIdHeader) {
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            return submit(teacherId);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    @Operation(summary = "Start an export of all scores (admin)")
+    @PostMapping("/scores/admin")
+    public ResponseEntity<?> submitAdminExport() {
+        return submit(null);
+    }
+
+    @Operation(summary = "Get export job status")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getStatus(
+            @PathVariable String jobId,
+            @RequestHeader(value = "Teacher-Id", required = false) Long teacherId) {
+
+        Optional<ExportJobStatus> status = exportJobService.getStatus(jobId);
+        if (!status.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canAccess(status.get(), teacherId)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(status.get());
+    }
+
+    @Operation(summary = "Download the file of a completed export job",
+               description = "Supports Range (resume) and If-None-Match / If-Modified-Since (304)")
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> download(
+            @PathVariable String jobId,
+            @RequestHeader(value = "Teacher-Id", required = false) Long teacherId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Optional<ExportJobStatus> status = exportJobService.getStatus(jobId);
+        if (!status.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canAccess(status.get(), teacherId)) {
+            return forbidden();
+        }
+        Optional<Path> file = exportJobService.getFile(jobId);
+        if (!file.isPresent()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(status.get());
+        }
+
+        // Range and conditional requests are handled there; the body never passes through the heap
+        FileResponseWriter.write(file.get(), ExcelHelper.TYPE, status.get().getFileName(), request, response);
+        return null;
+    }
+
+    private ResponseEntity<?> submit(Long teacherId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(teacherId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Teacher exports are visible to their teacher only; admin exports have no owner
+    private static boolean canAccess(ExportJobStatus status, Long teacherId) {
+        return status.getTeacherId() == null || status.getTeacherId().equals(teacherId);
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+            "error", "Access denied",
+            "message", "Teacher is not authorized to access this export"
+        ));
+    }
+}
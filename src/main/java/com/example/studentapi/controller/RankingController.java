@@ -0,0 +1,64 @@
+package com.example.studentapi.controller;
+
+import com.example.studentapi.dto.RankingEntry;
+import com.example.studentapi.service.AuthorizationService;
+import com.example.studentapi.service.RankingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rankings")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Ranking", description = "Student ranking APIs")
+public class RankingController {
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Operation(summary = "Rank students in a class",
+               description = "Ranks by the given subject's TBM, or by mean TBM over all subjects when no subject is given")
+    @GetMapping("/class/{className}/year/{year}/semester/{semester}")
+    public ResponseEntity<?> rankClass(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @RequestParam(required = false) String subject,
+            @RequestHeader("Teacher-Id") Long teacherId) {
+
+        if (!authorizationService.canTeacherAccessClass(teacherId, className, year, semester)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Access denied",
+                "message", "Teacher is not authorized to view rankings of this class"
+            ));
+        }
+
+        List<RankingEntry> ranking = rankingService.rankClass(className, year, semester, blankToNull(subject));
+        return ResponseEntity.ok(ranking);
+    }
+
+    @Operation(summary = "Rank students across a grade level",
+               description = "Ranks every student in the active classes of a grade; each entry also carries its class rank")
+    @GetMapping("/grade/{gradeLevel}/year/{year}/semester/{semester}")
+    public ResponseEntity<List<RankingEntry>> rankGrade(
+            @PathVariable int gradeLevel,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @RequestParam(required = false) String subject) {
+
+        return ResponseEntity.ok(rankingService.rankGrade(gradeLevel, year, semester, blankToNull(subject)));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+}
@@ -1,26 +1,44 @@
 package com.example.studentapi.controller;
 
+import com.example.studentapi.dto.ClassScoreSummary;
+import com.example.studentapi.dto.GradebookRow;
+import com.example.studentapi.dto.ImportReport;
+import com.example.studentapi.dto.RegularScoreStats;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.dto.SubjectTrend;
 import com.example.studentapi.model.Score;
+import com.example.studentapi.service.AuthorizationService;
+import com.example.studentapi.service.ExportCacheService;
 import com.example.studentapi.service.ScoreService;
+import com.example.studentapi.service.StudentTrendService;
 import com.example.studentapi.service.impl.ScoreServiceImpl;
+import com.example.studentapi.util.ExcelHelper;
+import com.example.studentapi.util.FileResponseWriter;
+import com.example.studentapi.util.FileValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/scores")
@@ -28,22 +46,35 @@ import java.util.Map;
 @Tag(name = "Score", description = "Score management APIs")
 public class ScoreController {
 
+    private static final Logger log = LoggerFactory.getLogger(ScoreController.class);
+
+    private static final int MAX_TOP_LIMIT = 100;
+
     @Autowired
     private ScoreService scoreService;
     
     @Autowired
     private ScoreServiceImpl scoreServiceImpl; // For access to security methods
 
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private StudentTrendService studentTrendService;
+
+    @Autowired
+    private ExportCacheService exportCacheService;
+
     @GetMapping
-    public ResponseEntity<List<Score>> getAllScores() {
-        List<Score> scores = scoreService.findAll();
+    public ResponseEntity<List<ScoreView>> getAllScores() {
+        List<ScoreView> scores = scoreService.findAllViews();
         return ResponseEntity.ok(scores);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Score> getScoreById(@PathVariable String id) {
-        Score score = scoreService.findById(id);
-        return ResponseEntity.ok(score);
+    public ResponseEntity<ScoreView> getScoreById(@PathVariable String id) {
+        ScoreView score = scoreService.findViewById(id);
+        return score != null ? ResponseEntity.ok(score) : ResponseEntity.notFound().build();
     }
 
     // BATCH OPERATIONS
@@ -367,7 +398,7 @@ public class ScoreController {
                     .body("Teacher does not have access to this class");
             }
             
-            List<Score> scores = scoreService.findByClassNameAndYearAndSemester(className, year, semester);
+            List<ScoreView> scores = scoreService.findViewsByClassNameAndYearAndSemester(className, year, semester);
             return ResponseEntity.ok(scores);
             
         } catch (NumberFormatException e) {
@@ -376,6 +407,191 @@ public class ScoreController {
         }
     }
 
+    // Secured endpoint for a one-pass class summary (replaces separate average/count/top-score calls)
+    @GetMapping("/class/{className}/year/{year}/semester/{semester}/subject/{subject}/summary")
+    @Operation(summary = "Get class score summary", 
+               description = "Count, mean, standard deviation, min/max, median, grade bands and pass rate of TBM for a class subject")
+    public ResponseEntity<?> getClassSummary(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @PathVariable String subject,
+            HttpServletRequest request) {
+        
+        String teacherIdHeader = request.getHeader("Teacher-Id");
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            
+            if (!scoreServiceImpl.teacherHasAccessToClass(teacherId, className, subject, year, semester)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Teacher does not have access to this class");
+            }
+            
+            ClassScoreSummary summary = scoreService.getClassSummary(className, subject, year, semester);
+            return ResponseEntity.ok(summary);
+            
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    // Secured gradebook: the on-screen counterpart of an export sheet, from the same pivot query
+    @GetMapping("/gradebook/class/{className}/year/{year}/subject/{subject}")
+    @Operation(summary = "Get class gradebook", 
+               description = "One row per student with HK1, HK2 and the yearly TBM ((HK1 + 2 x HK2) / 3), sorted by name")
+    public ResponseEntity<?> getGradebook(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String subject,
+            HttpServletRequest request) {
+        
+        String teacherIdHeader = request.getHeader("Teacher-Id");
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            
+            if (!scoreServiceImpl.teacherHasAccessToClass(teacherId, className, subject, year, "1")
+                    && !scoreServiceImpl.teacherHasAccessToClass(teacherId, className, subject, year, "2")) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Teacher does not have access to this class");
+            }
+            
+            List<GradebookRow> gradebook = scoreService.getGradebook(className, subject, year);
+            return ResponseEntity.ok(gradebook);
+            
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    // Secured leaderboard for a class subject; only `limit` rows are read
+    @GetMapping("/top/class/{className}/year/{year}/semester/{semester}/subject/{subject}")
+    @Operation(summary = "Get top scores of a class", 
+               description = "Highest TBM scores for a class subject, limited in the database")
+    public ResponseEntity<?> getTopScoresForClass(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @PathVariable String subject,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        
+        String teacherIdHeader = request.getHeader("Teacher-Id");
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            return ResponseEntity.badRequest()
+                .body("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            
+            if (!scoreServiceImpl.teacherHasAccessToClass(teacherId, className, subject, year, semester)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Teacher does not have access to this class");
+            }
+            
+            List<ScoreView> top = scoreService.getTopScoreViewsForClass(className, subject, year, semester, limit);
+            return ResponseEntity.ok(top);
+            
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    // Leaderboard across every active class of a grade level, for teachers of the subject in that grade
+    @GetMapping("/top/grade/{gradeLevel}/year/{year}/semester/{semester}/subject/{subject}")
+    @Operation(summary = "Get top scores of a grade level", 
+               description = "Highest TBM scores for a subject across all classes of a grade level. Only teachers of the subject in that grade can access it.")
+    public ResponseEntity<?> getTopScoresForGrade(
+            @PathVariable int gradeLevel,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @PathVariable String subject,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        
+        String teacherIdHeader = request.getHeader("Teacher-Id");
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            return ResponseEntity.badRequest()
+                .body("Limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            
+            if (!authorizationService.canTeacherAccessGrade(teacherId, gradeLevel, subject, year, semester)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Teacher does not teach this subject in this grade level");
+            }
+            
+            List<ScoreView> top = scoreService.getTopScoresForGrade(gradeLevel, subject, year, semester, limit);
+            return ResponseEntity.ok(top);
+            
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    // Secured endpoint for regular-score (ĐĐGtx) statistics of a class subject
+    @GetMapping("/class/{className}/year/{year}/semester/{semester}/subject/{subject}/regular-stats")
+    @Operation(summary = "Get regular score statistics", 
+               description = "Count, sum and averages of regular scores (ĐĐGtx) for a class subject, aggregated in the database")
+    public ResponseEntity<?> getRegularScoreStats(
+            @PathVariable String className,
+            @PathVariable int year,
+            @PathVariable String semester,
+            @PathVariable String subject,
+            HttpServletRequest request) {
+        
+        String teacherIdHeader = request.getHeader("Teacher-Id");
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            
+            if (!scoreServiceImpl.teacherHasAccessToClass(teacherId, className, subject, year, semester)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Teacher does not have access to this class");
+            }
+            
+            RegularScoreStats stats = scoreService.getRegularScoreStatsForClass(className, subject, year, semester);
+            return ResponseEntity.ok(stats);
+            
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
     // Secured endpoint to get scores by teacher
     @GetMapping("/teacher/{teacherId}")
     @Operation(summary = "Get scores by teacher ID", 
@@ -401,7 +617,7 @@ public class ScoreController {
                     .body("Teachers can only access their own scores");
             }
             
-            List<Score> scores = scoreService.findByTeacherId(teacherId);
+            List<ScoreView> scores = scoreService.findViewsByTeacherId(teacherId);
             return ResponseEntity.ok(scores);
             
         } catch (NumberFormatException e) {
@@ -432,19 +648,19 @@ public class ScoreController {
         try {
             Long teacherId = Long.parseLong(teacherIdHeader);
             
-            response.setContentType("application/octet-stream");
-            response.setHeader("Content-Disposition", "attachment; filename=scores_teacher_" + teacherId + ".xlsx");
-            
-            // Use the secured export method
-            scoreServiceImpl.exportToExcelForTeacher(response, teacherId);
-            
-            return ResponseEntity.ok().build();
+            // Served from the export cache while the teacher's scores are unchanged
+            Optional<Path> file = exportCacheService.getScoresWorkbook(teacherId, null);
+            if (!file.isPresent()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No score data available to export");
+            }
+            FileResponseWriter.write(file.get(), ExcelHelper.TYPE, "scores_teacher_" + teacherId + ".xlsx", request, response);
+            return null;
             
         } catch (NumberFormatException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Invalid Teacher ID format");
         } catch (IOException e) {
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error exporting Excel file");
         }
@@ -454,25 +670,177 @@ public class ScoreController {
     @GetMapping("/export/admin")
     @Operation(summary = "Admin export all scores", 
                description = "Export all scores to Excel file. Admin access only.")
-    public void exportAllScores(HttpServletResponse response) {
+    public void exportAllScores(HttpServletRequest request, HttpServletResponse response) {
         try {
-            response.setContentType("application/octet-stream");
-            response.setHeader("Content-Disposition", "attachment; filename=all_scores.xlsx");
-            scoreService.exportToExcel(response);
+            Optional<Path> file = exportCacheService.getScoresWorkbook(null, null);
+            if (!file.isPresent()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                response.getWriter().write("No score data available to export");
+                return;
+            }
+            FileResponseWriter.write(file.get(), ExcelHelper.TYPE, "all_scores.xlsx", request, response);
         } catch (IOException e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
 
+    // One workbook per class (or class subject) in a ZIP that starts streaming as soon as the first is rendered
+    @GetMapping("/export/zip")
+    @Operation(summary = "Export scores as a ZIP of per-class workbooks", 
+               description = "split=class (default) or split=subject. Teachers can only export their own classes.")
+    public ResponseEntity<?> exportZip(
+            @RequestHeader("Teacher-Id") String teacherIdHeader,
+            @RequestParam(defaultValue = "class") String split,
+            HttpServletResponse response) {
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            return streamZip(teacherId, split, "scores_teacher_" + teacherId + ".zip", response);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    @GetMapping("/export/admin/zip")
+    @Operation(summary = "Admin export all scores as a ZIP of per-class workbooks", 
+               description = "split=class (default) or split=subject. Admin access only.")
+    public ResponseEntity<?> exportAllScoresZip(
+            @RequestParam(defaultValue = "class") String split,
+            HttpServletResponse response) {
+        
+        return streamZip(null, split, "all_scores.zip", response);
+    }
+
+    private ResponseEntity<?> streamZip(Long teacherId, String split, String filename, HttpServletResponse response) {
+        if (!"class".equals(split) && !"subject".equals(split)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "split must be 'class' or 'subject'"));
+        }
+        try {
+            response.setContentType("application/zip");
+            response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+            if (!scoreService.writeScoresZip(teacherId, "subject".equals(split), response.getOutputStream())) {
+                response.reset();
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("No score data available to export");
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("ZIP export failed", e);
+            if (!response.isCommitted()) {
+                response.reset();
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error exporting ZIP file");
+            }
+            // Part of the archive was already sent; the client sees a truncated ZIP
+            return null;
+        }
+    }
+
+    // CSV is the bulk exchange format: rows stream from keyset pages, nothing is cached or buffered
+    @GetMapping("/export/csv")
+    @Operation(summary = "Export scores as CSV", 
+               description = "UTF-8 CSV, one row per score, in the column order accepted by /import/csv. Teachers can only export their own scores.")
+    public ResponseEntity<?> exportCsv(
+            @RequestHeader("Teacher-Id") String teacherIdHeader,
+            HttpServletResponse response) {
+        
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Teacher ID is required in header");
+        }
+        
+        try {
+            Long teacherId = Long.parseLong(teacherIdHeader);
+            return streamCsv(teacherId, "scores_teacher_" + teacherId + ".csv", response);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid Teacher ID format");
+        }
+    }
+
+    @GetMapping("/export/admin/csv")
+    @Operation(summary = "Admin export all scores as CSV", 
+               description = "UTF-8 CSV, one row per score. Admin access only.")
+    public ResponseEntity<?> exportAllScoresCsv(HttpServletResponse response) {
+        return streamCsv(null, "all_scores.csv", response);
+    }
+
+    @PostMapping("/import/csv")
+    @Operation(summary = "Import scores from CSV", 
+               description = "UTF-8 CSV in the export column order (header row optional). Existing scores are updated; "
+                           + "rows for other teachers or unassigned classes are rejected, and the response lists rejected rows by line number.",
+               parameters = {
+                    @Parameter(name = "Teacher-Id", in = ParameterIn.HEADER, 
+                               description = "Teacher identifier", required = true,
+                               schema = @Schema(type = "string"))
+               })
+    public ResponseEntity<?> importCsv(@RequestParam("file") MultipartFile file, @RequestHeader("Teacher-Id") String teacherIdHeader) {
+        if (teacherIdHeader == null || teacherIdHeader.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(Map.of("error", "Teacher ID is required in header"));
+        }
+        Long teacherId;
+        try {
+            teacherId = Long.parseLong(teacherIdHeader);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "Invalid Teacher ID format"));
+        }
+        if (file.isEmpty() || file.getOriginalFilename() == null
+                || !file.getOriginalFilename().toLowerCase().endsWith(".csv")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A non-empty .csv file is required"));
+        }
+        if (!FileValidator.validateFileSize(file.getSize())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "File is too large"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = scoreService.importFromCsv(teacherId, in);
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error reading CSV file: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> streamCsv(Long teacherId, String filename, HttpServletResponse response) {
+        try {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+            scoreService.writeScoresCsv(teacherId, response.getOutputStream());
+            return null;
+        } catch (IOException e) {
+            log.warn("CSV export failed", e);
+            if (!response.isCommitted()) {
+                response.reset();
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error exporting CSV file");
+            }
+            return null;
+        }
+    }
+
     // Additional secured endpoints
     @GetMapping("/student/{studentId}")
     @Operation(summary = "Get scores by student ID", 
                description = "Retrieve scores for a specific student")
-    public ResponseEntity<List<Score>> getScoresByStudent(@PathVariable Long studentId) {
-        List<Score> scores = scoreService.findByStudentId(studentId);
+    public ResponseEntity<List<ScoreView>> getScoresByStudent(@PathVariable Long studentId) {
+        List<ScoreView> scores = scoreService.findViewsByStudentId(studentId);
         return ResponseEntity.ok(scores);
     }
 
+    @GetMapping("/student/{studentId}/trends")
+    @Operation(summary = "Get score trends of a student", 
+               description = "TBM series per subject across years and semesters, in one request")
+    public ResponseEntity<List<SubjectTrend>> getStudentTrends(@PathVariable Long studentId) {
+        return ResponseEntity.ok(studentTrendService.getTrends(studentId));
+    }
+
     // Utility endpoint to check teacher access to class
     @GetMapping("/check-access/{className}/{year}/{semester}/{subject}")
     @Operation(summary = "Check teacher access to class", 
@@ -1,14 +1,22 @@
 package com.example.studentapi.controller;
 
+import com.example.studentapi.dto.ImportReport;
 import com.example.studentapi.model.Student;
 import com.example.studentapi.service.StudentService;
+import com.example.studentapi.util.FileValidator;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/students")
@@ -46,4 +54,51 @@ public class StudentController {
         studentService.delete(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    // UTF-8 CSV: ID, Name, Gender, Hometown, Birthday (yyyy-MM-dd)
+    @GetMapping("/export/csv")
+    public void exportCsv(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=students.csv");
+        studentService.writeStudentsCsv(response.getOutputStream());
+    }
+
+    @PostMapping("/import/csv")
+    public ResponseEntity<?> importCsv(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty() || file.getOriginalFilename() == null
+                || !file.getOriginalFilename().toLowerCase().endsWith(".csv")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A non-empty .csv file is required"));
+        }
+        if (!FileValidator.validateFileSize(file.getSize())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "File is too large"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = studentService.importFromCsv(in);
+            return ResponseEntity.ok(report);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error reading CSV file: " + e.getMessage()));
+        }
+    }
+
+    // .xlsx with a "Students" sheet (ID, Name, Gender, Hometown, Birthday); the sheet is streamed, not loaded
+    @PostMapping("/import")
+    public ResponseEntity<?> importExcel(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty() || file.getOriginalFilename() == null
+                || !file.getOriginalFilename().toLowerCase().endsWith(".xlsx")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A non-empty .xlsx file is required"));
+        }
+        if (!FileValidator.validateFileSize(file.getSize())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", "File is too large"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportReport report = studentService.importFromExcel(in);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error reading Excel file: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.studentapi.controller;
+
+import com.example.studentapi.dto.PromotionEntry;
+import com.example.studentapi.model.YearlyResult;
+import com.example.studentapi.service.AuthorizationService;
+import com.example.studentapi.service.YearlyResultService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/yearly-results")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Yearly Results", description = "Precomputed yearly TBM (TBm CN) and promotion lists")
+public class YearlyResultController {
+
+    @Autowired
+    private YearlyResultService yearlyResultService;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Operation(summary = "Yearly results of a class",
+               description = "With a subject: that subject, highest yearly TBM first. Without: every subject, sorted by student name")
+    @GetMapping("/class/{className}/year/{year}")
+    public ResponseEntity<?> getClassResults(
+            @PathVariable String className,
+            @PathVariable int year,
+            @RequestParam(required = false) String subject,
+            @RequestHeader("Teacher-Id") Long teacherId) {
+
+        if (!canAccess(teacherId, className, year)) {
+            return forbidden();
+        }
+
+        List<YearlyResult> results = subject == null || subject.trim().isEmpty()
+            ? yearlyResultService.getClassResults(className, year)
+            : yearlyResultService.getClassSubjectResults(className, subject, year);
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Promotion list of a class",
+               description = "One entry per student; promoted when every subject has a yearly TBM of at least the threshold")
+    @GetMapping("/class/{className}/year/{year}/promotion")
+    public ResponseEntity<?> getPromotionList(
+            @PathVariable String className,
+            @PathVariable int year,
+            @RequestParam(defaultValue = "5.0") double threshold,
+            @RequestHeader("Teacher-Id") Long teacherId) {
+
+        if (!canAccess(teacherId, className, year)) {
+            return forbidden();
+        }
+
+        List<PromotionEntry> entries = yearlyResultService.getPromotionList(className, year, threshold);
+        return ResponseEntity.ok(entries);
+    }
+
+    @Operation(summary = "Yearly results of a student")
+    @GetMapping("/student/{studentId}")
+    public ResponseEntity<List<YearlyResult>> getStudentResults(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) Integer year) {
+
+        return ResponseEntity.ok(yearlyResultService.getStudentResults(studentId, year));
+    }
+
+    @Operation(summary = "Recompute every yearly result from the scores table (admin)")
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        int rows = yearlyResultService.rebuildAll();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+
+    // A yearly result spans both semesters; an assignment for either is enough
+    private boolean canAccess(Long teacherId, String className, int year) {
+        return authorizationService.canTeacherAccessClass(teacherId, className, year, "1")
+            || authorizationService.canTeacherAccessClass(teacherId, className, year, "2");
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+            "error", "Access denied",
+            "message", "Teacher is not authorized to view yearly results of this class"
+        ));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.studentapi.dto;
+
+import lombok.Data;
+
+/**
+ * Optional filters for analytics queries, bound from request parameters; null means any.
+ */
+@Data
+public class AnalyticsFilter {
+    private Integer year;
+    private String semester;
+    private Integer gradeLevel;
+    private String className;
+    private String subject;
+    private Long teacherId;
+    private Long studentId;
+}
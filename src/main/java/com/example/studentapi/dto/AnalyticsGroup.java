@@ -0,0 +1,22 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Aggregate of the scores in one analytics group (or the whole filtered set when key is null).
+ * TBM statistics cover graded scores only (TBM above zero).
+ */
+@Getter
+@AllArgsConstructor
+public class AnalyticsGroup {
+    private String key;
+    private long scoreCount;
+    private long gradedCount;
+    private Double averageTbm;
+    private Double standardDeviation;
+    private Double minTbm;
+    private Double maxTbm;
+    private double passRate;
+    private Double averageRegularScore;
+}
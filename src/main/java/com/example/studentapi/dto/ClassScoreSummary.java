@@ -0,0 +1,29 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Dashboard summary of graded TBMs (above zero) for one class subject.
+ * Statistics are null when nothing has been graded yet.
+ */
+@Getter
+@AllArgsConstructor
+public class ClassScoreSummary {
+    private String className;
+    private String subject;
+    private Integer year;
+    private String semester;
+    private long scoreCount;
+    private long gradedCount;
+    private Double mean;
+    private Double standardDeviation;
+    private Double min;
+    private Double max;
+    private Double median;
+    private double passRate;
+    // Band label -> number of students, highest band first
+    private Map<String, Long> gradeBands;
+}
@@ -0,0 +1,37 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Client view of a background export job.
+ */
+@Getter
+@AllArgsConstructor
+public class ExportJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, EMPTY, FAILED;
+
+        public boolean isActive() {
+            return this == QUEUED || this == RUNNING;
+        }
+    }
+
+    private String jobId;
+    // "teacher" or "admin"
+    private String type;
+    private Long teacherId;
+    private State state;
+    // 0-100, by sheets rendered
+    private int progress;
+    private String fileName;
+    private Long fileSize;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    // Set once the file is ready
+    private String downloadUrl;
+}
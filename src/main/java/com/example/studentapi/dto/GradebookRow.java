@@ -0,0 +1,57 @@
+package com.example.studentapi.dto;
+
+import com.example.studentapi.model.YearlyResult;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One student's line of a class subject gradebook: both semesters side by side and the
+ * yearly TBM, pivoted from the student's score rows in a single query.
+ */
+@Getter
+public class GradebookRow {
+    private final Long studentId;
+    private final String studentName;
+    private final String className;
+    private final String subject;
+    private final Integer year;
+    @JsonIgnore
+    private final String teacherName;
+    // Null when the student has no score for the semester
+    private final Semester hk1;
+    private final Semester hk2;
+    // (TBm HK1 + 2 x TBm HK2) / 3, null unless both semesters are graded
+    private final Double yearlyTbm;
+
+    public GradebookRow(Long studentId, String studentName, String className, String subject, Integer year,
+                        String teacherName,
+                        Long hk1Pk, Integer hk1TxSum, Integer hk1TxCount, Integer hk1Gk, Integer hk1Ck,
+                        Double hk1Tbm, String hk1Comment,
+                        Long hk2Pk, Integer hk2TxSum, Integer hk2TxCount, Integer hk2Gk, Integer hk2Ck,
+                        Double hk2Tbm, String hk2Comment) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.className = className;
+        this.subject = subject;
+        this.year = year;
+        this.teacherName = teacherName;
+        this.hk1 = hk1Pk != null ? new Semester(txAverage(hk1TxSum, hk1TxCount), hk1Gk, hk1Ck, hk1Tbm, hk1Comment) : null;
+        this.hk2 = hk2Pk != null ? new Semester(txAverage(hk2TxSum, hk2TxCount), hk2Gk, hk2Ck, hk2Tbm, hk2Comment) : null;
+        this.yearlyTbm = YearlyResult.yearlyTbm(hk1Tbm, hk2Tbm);
+    }
+
+    private static double txAverage(Integer sum, Integer count) {
+        return count != null && count > 0 && sum != null ? Math.round((double) sum / count * 10.0) / 10.0 : 0.0;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Semester {
+        private double ddgtx;
+        private Integer ddggk;
+        private Integer ddgck;
+        private Double tbm;
+        private String comment;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.studentapi.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: row counts and the rejected or skipped rows. Only the first
+ * MAX_ERRORS are listed; failedRows and duplicateRows always have the full counts.
+ */
+@Getter
+public class ImportReport {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long rowsRead;
+    private long importedRows;
+    private long updatedRows;
+    private long duplicateRows;
+    private long failedRows;
+    private boolean errorsTruncated;
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(long count) {
+        importedRows += count;
+    }
+
+    public void updated(long count) {
+        updatedRows += count;
+    }
+
+    // Skipped because the record already exists; listed with the errors
+    public void duplicate(long row, String message) {
+        duplicateRows++;
+        addError(row, message);
+    }
+
+    public void reject(long row, String message) {
+        failedRows++;
+        addError(row, message);
+    }
+
+    private void addError(long row, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportRowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
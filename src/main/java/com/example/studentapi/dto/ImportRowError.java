@@ -0,0 +1,15 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Why one row of an imported file was rejected.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportRowError {
+    // Line (CSV) or row (spreadsheet) number in the file, from 1
+    private long row;
+    private String message;
+}
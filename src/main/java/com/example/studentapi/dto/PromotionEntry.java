@@ -0,0 +1,30 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Year-end summary of one student's yearly TBMs across the subjects of a class.
+ * Promoted means every subject has a yearly TBM and none is below the threshold.
+ */
+@Getter
+@AllArgsConstructor
+public class PromotionEntry {
+    private Long studentId;
+    private String studentName;
+    private long subjectCount;
+    // Subjects with both semesters graded
+    private long completedCount;
+    private long belowThresholdCount;
+    private Double minYearlyTbm;
+    private Double averageYearlyTbm;
+    private boolean promoted;
+
+    public PromotionEntry(Long studentId, String studentName, Long subjectCount, Long completedCount,
+                          Long belowThresholdCount, Double minYearlyTbm, Double averageYearlyTbm) {
+        this(studentId, studentName, subjectCount, completedCount,
+             belowThresholdCount != null ? belowThresholdCount : 0L, minYearlyTbm,
+             averageYearlyTbm != null ? Math.round(averageYearlyTbm * 100.0) / 100.0 : null,
+             completedCount.equals(subjectCount) && (belowThresholdCount == null || belowThresholdCount == 0));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One ranked student. For subject rankings {@code score} is the TBM of that subject;
+ * for overall rankings it is the mean TBM across the student's graded subjects.
+ * Ranks follow RANK() semantics: ties share a rank and the next rank is skipped.
+ */
+@Getter
+@AllArgsConstructor
+public class RankingEntry {
+    private Long studentId;
+    private String studentName;
+    private String className;
+    private String subject;
+    private Double score;
+    private Integer subjectCount;
+    private Long classRank;
+    private Long gradeRank;
+}
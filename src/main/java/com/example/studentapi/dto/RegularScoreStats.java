@@ -0,0 +1,27 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Regular-score (ĐĐGtx) statistics for one subject, aggregated in SQL from the
+ * stored ddgtx_count/ddgtx_sum columns.
+ */
+@Getter
+@AllArgsConstructor
+public class RegularScoreStats {
+    private String subject;
+    private Long scoreCount;
+    private Long regularScoreCount;
+    private Long regularScoreSum;
+    // Mean of each student's own regular-score average
+    private Double averageOfStudentAverages;
+
+    // Mean over every individual regular score in the group
+    public double getAverageRegularScore() {
+        if (regularScoreCount == null || regularScoreCount == 0 || regularScoreSum == null) {
+            return 0.0;
+        }
+        return Math.round((double) regularScoreSum / regularScoreCount * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * One slice of the score rollup: the grouped dimension values plus derived measures.
+ */
+@Getter
+@AllArgsConstructor
+public class RollupRow {
+    // Dimension parameter name -> value, in group-by order
+    private Map<String, Object> dimensions;
+    private long scoreCount;
+    private long gradedCount;
+    private Double averageTbm;
+    private Double standardDeviation;
+    private double passRate;
+    private Double averageRegularScore;
+}
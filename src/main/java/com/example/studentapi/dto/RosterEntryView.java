@@ -0,0 +1,23 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * One student on a class roster, flattened from StudentClassAssignment and Student.
+ */
+@Getter
+@AllArgsConstructor
+public class RosterEntryView {
+    private Long assignmentId;
+    private Long studentId;
+    private String studentName;
+    private String gender;
+    private LocalDate birthday;
+    private Long classId;
+    private Integer academicYear;
+    private String semester;
+    private String studentNumber;
+}
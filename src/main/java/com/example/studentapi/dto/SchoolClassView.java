@@ -0,0 +1,20 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of a class without audit fields or assignment collections.
+ */
+@Getter
+@AllArgsConstructor
+public class SchoolClassView {
+    private Long id;
+    private String name;
+    private String className;
+    private Integer gradeLevel;
+    private Integer academicYear;
+    private String semester;
+    private String subject;
+    private Boolean isActive;
+}
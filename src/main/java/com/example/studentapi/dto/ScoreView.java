@@ -0,0 +1,34 @@
+package com.example.studentapi.dto;
+
+import com.example.studentapi.model.Score;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of a score row, selected directly in JPQL so list
+ * endpoints never hydrate the entity or touch its lazy associations.
+ */
+@Getter
+@AllArgsConstructor
+public class ScoreView {
+    private String id;
+    private Long studentId;
+    private Long teacherId;
+    private Long classId;
+    private String className;
+    private String subject;
+    private String semester;
+    private Integer year;
+    private String ddgtx;
+    private Integer ddggk;
+    private Integer ddgck;
+    private Double tbm;
+    private String comment;
+    private String studentName;
+    private String teacherName;
+
+    // Kept so the JSON shape matches the entity response
+    public double getAverageDdgtx() {
+        return Score.averageDdgtx(ddgtx);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * TBM series of one subject for a student, oldest term first.
+ */
+@Getter
+@AllArgsConstructor
+public class SubjectTrend {
+    private String subject;
+    private List<TrendPoint> points;
+}
@@ -0,0 +1,18 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Exact TBM distribution: bins[i] counts graded scores with TBM i/10 (0.0 to 10.0).
+ */
+@Getter
+@AllArgsConstructor
+public class TbmDistribution {
+    private AnalyticsGroup summary;
+    private long[] bins;
+    // Band label -> count, highest band first
+    private Map<String, Long> gradeBands;
+}
@@ -0,0 +1,32 @@
+package com.example.studentapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * TBM percentiles of graded scores (above zero) at class, grade or school level,
+ * merged from the per-class histograms. Values are null when nothing has been graded.
+ */
+@Getter
+@AllArgsConstructor
+public class TbmPercentiles {
+    // "class", "grade" or "school"
+    private String level;
+    // Class name or grade level; null for the whole school
+    private String scope;
+    // Null when all subjects are merged
+    private String subject;
+    private Integer year;
+    private String semester;
+    private int classSubjectCount;
+    private long gradedCount;
+    private Double min;
+    private Double p10;
+    private Double p25;
+    private Double median;
+    private Double p75;
+    private Double p90;
+    private Double max;
+    // bins[i] = number of graded scores with TBM i/10
+    private long[] bins;
+}
@@ -0,0 +1,26 @@
+package com.example.studentapi.dto;
+
+import com.example.studentapi.model.TeacherClassAssignment.AssignmentRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of a teacher-class assignment with the teacher and class
+ * names flattened in, produced by a single join query.
+ */
+@Getter
+@AllArgsConstructor
+public class TeacherAssignmentView {
+    private Long id;
+    private Long teacherId;
+    private String teacherName;
+    private Long classId;
+    private String className;
+    private String subject;
+    private Integer academicYear;
+    private String semester;
+    private AssignmentRole role;
+    private Boolean isPrimaryTeacher;
+    private Boolean isActive;
+    private String assignedBy;
+}
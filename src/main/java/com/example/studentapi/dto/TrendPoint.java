@@ -0,0 +1,19 @@
+package com.example.studentapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One TBM of a student's subject trend series.
+ */
+@Getter
+@AllArgsConstructor
+public class TrendPoint {
+    // Grouping key only; the enclosing SubjectTrend carries the subject
+    @JsonIgnore
+    private String subject;
+    private Integer year;
+    private String semester;
+    private Double tbm;
+}
@@ -0,0 +1,29 @@
+package com.example.studentapi.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published synchronously by ScoreServiceImpl for every insert, update and delete,
+ * inside the writing transaction. {@code before} is null for inserts and
+ * {@code after} is null for deletes.
+ */
+@Getter
+@ToString
+public class ScoreChangedEvent {
+    private final ScoreSnapshot before;
+    private final ScoreSnapshot after;
+
+    public ScoreChangedEvent(ScoreSnapshot before, ScoreSnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public boolean isInsert() {
+        return before == null && after != null;
+    }
+
+    public boolean isDelete() {
+        return before != null && after == null;
+    }
+}
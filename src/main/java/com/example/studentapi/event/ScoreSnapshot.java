@@ -0,0 +1,61 @@
+package com.example.studentapi.event;
+
+import com.example.studentapi.model.RegularScores;
+import com.example.studentapi.model.Score;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Immutable copy of the fields of a score that derived data (statistics, rollups,
+ * caches) depends on, taken at a point in time so it is unaffected by later merges.
+ */
+@Getter
+@ToString
+public class ScoreSnapshot {
+    private final String id;
+    private final Long studentId;
+    private final Long teacherId;
+    private final Long classId;
+    private final String className;
+    private final String subject;
+    private final String semester;
+    private final Integer year;
+    private final Integer ddggk;
+    private final Integer ddgck;
+    private final Double tbm;
+    private final int ddgtxCount;
+    private final long ddgtxSum;
+    private final String studentName;
+
+    private ScoreSnapshot(Score score) {
+        RegularScores regular = score.getRegularScores();
+        this.id = score.getId();
+        this.studentId = score.getStudentId();
+        this.teacherId = score.getTeacherId();
+        this.classId = score.getClassId();
+        this.className = score.getClassName();
+        this.subject = score.getSubject();
+        this.semester = score.getSemester();
+        this.year = score.getYear();
+        this.ddggk = score.getDdggk();
+        this.ddgck = score.getDdgck();
+        this.tbm = score.getTbm();
+        this.ddgtxCount = regular.count();
+        this.ddgtxSum = regular.sum();
+        this.studentName = score.getStudentName();
+    }
+
+    public static ScoreSnapshot of(Score score) {
+        return score != null ? new ScoreSnapshot(score) : null;
+    }
+
+    // A score with a TBM above zero has been graded
+    public boolean isGraded() {
+        return tbm != null && tbm > 0;
+    }
+
+    // TBM is stored with one decimal; tenths keep sums exact
+    public int getTbmTenths() {
+        return tbm != null ? (int) Math.round(tbm * 10) : 0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.studentapi.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running TBM aggregates for one (class, subject, year, semester), maintained in the same
+ * transaction as every score write. Sums are kept in tenths of a point so they stay exact.
+ * Graded means TBM above zero, matching the previous AVG query; pass means TBM of at least 5.0.
+ */
+@Getter
+@Setter
+@ToString(exclude = "tbmHistogram")
+@NoArgsConstructor
+@Entity
+@Table(name = "class_score_stats")
+public class ClassScoreStats {
+
+    public static final int PASS_THRESHOLD_TENTHS = 50;
+
+    @EmbeddedId
+    private ClassScoreStatsId id;
+
+    @Column(name = "score_count", nullable = false)
+    private long scoreCount;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Column(name = "tbm_sum_tenths", nullable = false)
+    private long tbmSumTenths;
+
+    @Column(name = "tbm_sum_sq_tenths", nullable = false)
+    private long tbmSumSqTenths;
+
+    @Column(name = "tbm_min_tenths")
+    private Integer tbmMinTenths;
+
+    @Column(name = "tbm_max_tenths")
+    private Integer tbmMaxTenths;
+
+    @Column(name = "pass_count", nullable = false)
+    private long passCount;
+
+    // Serialized TbmHistogram of graded TBMs; null on rows written before the column existed
+    @Column(name = "tbm_histogram", columnDefinition = "VARBINARY(404)")
+    private byte[] tbmHistogram;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ClassScoreStats(ClassScoreStatsId id) {
+        this.id = id;
+        this.tbmHistogram = new TbmHistogram().toBytes();
+    }
+
+    public boolean hasHistogram() {
+        return tbmHistogram != null;
+    }
+
+    public TbmHistogram getHistogram() {
+        return TbmHistogram.fromBytes(tbmHistogram);
+    }
+
+    // Helper methods
+    public Double getAverage() {
+        return gradedCount > 0 ? tbmSumTenths / 10.0 / gradedCount : null;
+    }
+
+    public Double getMin() {
+        return tbmMinTenths != null ? tbmMinTenths / 10.0 : null;
+    }
+
+    public Double getMax() {
+        return tbmMaxTenths != null ? tbmMaxTenths / 10.0 : null;
+    }
+
+    // Population standard deviation of graded TBMs
+    public Double getStandardDeviation() {
+        if (gradedCount == 0) {
+            return null;
+        }
+        double mean = tbmSumTenths / (double) gradedCount;
+        double variance = tbmSumSqTenths / (double) gradedCount - mean * mean;
+        return Math.sqrt(Math.max(variance, 0.0)) / 10.0;
+    }
+
+    public double getPassRate() {
+        return gradedCount > 0 ? (double) passCount / gradedCount : 0.0;
+    }
+
+    public void add(int tbmTenths, boolean graded) {
+        scoreCount++;
+        if (!graded) {
+            return;
+        }
+        gradedCount++;
+        tbmSumTenths += tbmTenths;
+        tbmSumSqTenths += (long) tbmTenths * tbmTenths;
+        if (tbmTenths >= PASS_THRESHOLD_TENTHS) {
+            passCount++;
+        }
+        if (tbmMinTenths == null || tbmTenths < tbmMinTenths) {
+            tbmMinTenths = tbmTenths;
+        }
+        if (tbmMaxTenths == null || tbmTenths > tbmMaxTenths) {
+            tbmMaxTenths = tbmTenths;
+        }
+        if (tbmHistogram != null) {
+            TbmHistogram histogram = getHistogram();
+            histogram.add(tbmTenths);
+            tbmHistogram = histogram.toBytes();
+        }
+    }
+
+    /**
+     * Removes one score. Returns true when the removed TBM was the current min or max and
+     * there is no histogram to take the next extreme from, in which case the caller must
+     * recompute the extremes from the scores table.
+     */
+    public boolean remove(int tbmTenths, boolean graded) {
+        scoreCount = Math.max(scoreCount - 1, 0);
+        if (!graded) {
+            return false;
+        }
+        gradedCount = Math.max(gradedCount - 1, 0);
+        tbmSumTenths -= tbmTenths;
+        tbmSumSqTenths -= (long) tbmTenths * tbmTenths;
+        if (tbmTenths >= PASS_THRESHOLD_TENTHS) {
+            passCount = Math.max(passCount - 1, 0);
+        }
+        if (gradedCount == 0) {
+            tbmMinTenths = null;
+            tbmMaxTenths = null;
+            if (tbmHistogram != null) {
+                tbmHistogram = new TbmHistogram().toBytes();
+            }
+            return false;
+        }
+        if (tbmHistogram != null) {
+            TbmHistogram histogram = getHistogram();
+            histogram.remove(tbmTenths);
+            tbmHistogram = histogram.toBytes();
+            tbmMinTenths = histogram.minTenths();
+            tbmMaxTenths = histogram.maxTenths();
+            return false;
+        }
+        return Integer.valueOf(tbmTenths).equals(tbmMinTenths) || Integer.valueOf(tbmTenths).equals(tbmMaxTenths);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ClassScoreStats other = (ClassScoreStats) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.studentapi.model;
+
+/**
+ * Academic performance bands for a TBM, highest first.
+ * Thresholds are in tenths of a point because TBM is stored with one decimal.
+ */
+public enum GradeBand {
+    GIOI("Giỏi", 80),
+    KHA("Khá", 65),
+    TRUNG_BINH("Trung bình", 50),
+    YEU("Yếu", 35),
+    KEM("Kém", 0);
+
+    private final String label;
+    private final int minTenths;
+
+    GradeBand(String label, int minTenths) {
+        this.label = label;
+        this.minTenths = minTenths;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getMinTenths() {
+        return minTenths;
+    }
+
+    public static GradeBand ofTenths(int tbmTenths) {
+        for (GradeBand band : values()) {
+            if (tbmTenths >= band.minTenths) {
+                return band;
+            }
+        }
+        return KEM;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.studentapi.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed, immutable form of the comma-separated regular scores (ĐĐGtx).
+ * Scores in the 0-10 range take one byte each; count and sum are computed once at parse time.
+ * Unparseable input yields {@link #EMPTY}, matching the previous split/parseInt behaviour.
+ */
+public final class RegularScores {
+
+    public static final RegularScores EMPTY = new RegularScores(new byte[0], null, 0, 0);
+
+    private static final byte OUT_OF_RANGE = -1;
+
+    // parseToken results that are not scores
+    private static final long BLANK = Long.MIN_VALUE;
+    private static final long MALFORMED = Long.MIN_VALUE + 1;
+
+    private final byte[] values;
+    // Raw values, kept only when some score falls outside 0-10 (needed for validation messages)
+    private final int[] rawValues;
+    private final int count;
+    private final long sum;
+
+    private RegularScores(byte[] values, int[] rawValues, int count, long sum) {
+        this.values = values;
+        this.rawValues = rawValues;
+        this.count = count;
+        this.sum = sum;
+    }
+
+    public static RegularScores parse(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return EMPTY;
+        }
+        int capacity = 1;
+        for (int i = 0; i < csv.length(); i++) {
+            if (csv.charAt(i) == ',') capacity++;
+        }
+
+        byte[] values = new byte[capacity];
+        int[] rawValues = null;
+        int count = 0;
+        long sum = 0;
+        int start = 0;
+        while (start <= csv.length()) {
+            int end = csv.indexOf(',', start);
+            if (end < 0) end = csv.length();
+            long token = parseToken(csv, start, end);
+            if (token == MALFORMED) {
+                return EMPTY;
+            }
+            if (token != BLANK) {
+                int value = (int) token;
+                if (value < 0 || value > 10) {
+                    if (rawValues == null) {
+                        rawValues = new int[capacity];
+                        for (int i = 0; i < count; i++) rawValues[i] = values[i];
+                    }
+                    values[count] = OUT_OF_RANGE;
+                } else {
+                    values[count] = (byte) value;
+                }
+                if (rawValues != null) rawValues[count] = value;
+                count++;
+                sum += value;
+            }
+            start = end + 1;
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new RegularScores(
+            count == capacity ? values : Arrays.copyOf(values, count),
+            rawValues == null || count == capacity ? rawValues : Arrays.copyOf(rawValues, count),
+            count, sum);
+    }
+
+    /**
+     * Average of a comma-separated score string without allocating; 0.0 when empty or malformed.
+     */
+    public static double average(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return 0.0;
+        }
+        int count = 0;
+        long sum = 0;
+        int start = 0;
+        while (start <= csv.length()) {
+            int end = csv.indexOf(',', start);
+            if (end < 0) end = csv.length();
+            long token = parseToken(csv, start, end);
+            if (token == MALFORMED) {
+                return 0.0;
+            }
+            if (token != BLANK) {
+                count++;
+                sum += token;
+            }
+            start = end + 1;
+        }
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    // Integer.parseInt semantics on the trimmed token [start, end)
+    private static long parseToken(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') start++;
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        if (start == end) {
+            return BLANK;
+        }
+        boolean negative = false;
+        char first = s.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) return MALFORMED;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return MALFORMED;
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) return MALFORMED;
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? MALFORMED : value;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double average() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+        return rawValues != null ? rawValues[index] : values[index];
+    }
+
+    public boolean isInRange(int index) {
+        return values[index] != OUT_OF_RANGE;
+    }
+
+    public boolean allInRange() {
+        return rawValues == null;
+    }
+
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.studentapi.model;
+
+/**
+ * Dimensions of the score rollup that can be filtered, grouped, drilled into or rolled up.
+ * The JPQL path is fixed here, so query building never interpolates request input.
+ */
+public enum RollupDimension {
+    YEAR("year", "r.id.year"),
+    SEMESTER("semester", "r.id.semester"),
+    GRADE_LEVEL("gradeLevel", "r.id.gradeLevel"),
+    CLASS_NAME("className", "r.id.className"),
+    SUBJECT("subject", "r.id.subject"),
+    TEACHER("teacherId", "r.id.teacherId");
+
+    private final String paramName;
+    private final String path;
+
+    RollupDimension(String paramName, String path) {
+        this.paramName = paramName;
+        this.path = path;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // Typed filter value for this dimension
+    public Object parseValue(String value) {
+        switch (this) {
+            case YEAR:
+            case GRADE_LEVEL:
+                return Integer.valueOf(value);
+            case TEACHER:
+                return Long.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    public static RollupDimension fromParamName(String name) {
+        for (RollupDimension dimension : values()) {
+            if (dimension.paramName.equalsIgnoreCase(name) || dimension.name().equalsIgnoreCase(name)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rollup dimension: " + name);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.studentapi.model;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -8,9 +11,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.List;
 
-@Data
+@Getter
+@Setter
+@ToString
 @Entity
 @Table(name = "classes")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -50,17 +54,8 @@ public class SchoolClass {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    // One-to-Many with TeacherClassAssignment
-    @OneToMany(mappedBy = "schoolClass", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<TeacherClassAssignment> teacherAssignments;
-
-    // One-to-Many with StudentClassAssignment
-    @OneToMany(mappedBy = "classEntity", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<StudentClassAssignment> studentAssignments;
-
-    // One-to-Many with Scores
-    @OneToMany(mappedBy = "schoolClass", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<Score> scores;
+    // Teacher assignments, student assignments and scores are not mapped as collections here;
+    // use the paginated accessors in SchoolClassService instead.
     
     // Helper methods
     public boolean isActive() {
@@ -79,4 +74,18 @@ public class SchoolClass {
             this.name = className;
         }
     }
+
+    // Identity-based equality so equals/hashCode never initialize lazy associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        SchoolClass other = (SchoolClass) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
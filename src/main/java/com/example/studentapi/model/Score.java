@@ -1,9 +1,14 @@
 package com.example.studentapi.model;
 
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.example.studentapi.util.ScoreIdCodec;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import javax.persistence.*;
@@ -12,17 +17,27 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"student", "teacher", "schoolClass", "regularScores", "regularScoresSource"})
 @Entity
-@Table(name = "scores")
+@Table(name = "scores", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_scores_id", columnNames = "id")
+})
 public class Score {
+    // Surrogate key: keeps the clustered index and every secondary index narrow
     @Id
-    @Column(name = "id", length = 500, insertable = false, updatable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "pk")
+    @JsonIgnore
+    private Long pk;
+
+    // Legacy natural-key ID (see createScoreId), still the identifier exposed by the API
+    @Column(name = "id", nullable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin")
     private String id;
 
     @NotNull(message = "Student ID is required")
@@ -72,6 +87,15 @@ public class Score {
     @Column(name = "tbm")
     private Double tbm = 0.0;
     
+    // Maintained from ddgtx on every write so regular-score statistics can be aggregated in SQL
+    @JsonIgnore
+    @Column(name = "ddgtx_count")
+    private Integer ddgtxCount;
+
+    @JsonIgnore
+    @Column(name = "ddgtx_sum")
+    private Integer ddgtxSum;
+    
     @Column(name = "comment", columnDefinition = "TEXT")
     private String comment;
     
@@ -102,28 +126,20 @@ public class Score {
     @JoinColumn(name = "class_id", insertable = false, updatable = false)
     private SchoolClass schoolClass;
 
-    /**
-     * Clean string for use in ID (remove special characters, spaces, etc.)
-     */
-    private static String cleanString(String input) {
-        if (input == null) return "";
-        // Remove Vietnamese diacritics and special characters, convert to lowercase
-        String cleaned = input
-            .toLowerCase()
-            .replaceAll("[àáạảãâầấậẩẫăằắặẳẵ]", "a")
-            .replaceAll("[èéẹẻẽêềếệểễ]", "e")
-            .replaceAll("[ìíịỉĩ]", "i")
-            .replaceAll("[òóọỏõôồốộổỗơờớợởỡ]", "o")
-            .replaceAll("[ùúụủũưừứựửữ]", "u")
-            .replaceAll("[ỳýỵỷỹ]", "y")
-            .replaceAll("[đ]", "d")
-            .replaceAll("[^a-zA-Z0-9]", "");
-        return cleaned;
-    }
+    // Packed ddgtx, re-parsed only when the ddgtx string instance changes
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private RegularScores regularScores;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String regularScoresSource;
 
     /**
      * Generate unique ID based on business logic
-     * Format: teacherId_studentId_className_subject_year_semester
+     * Format: teacherId_studentId_year_semester_className_subject
      */
     public String generateScoreId() {
         if (teacherId == null || studentId == null || className == null || 
@@ -131,40 +147,37 @@ public class Score {
             throw new IllegalStateException("Required fields (teacherId/studentId/className/subject/year/semester) are missing");
         }
         
-        // Clean the strings to avoid issues with special characters
-        String cleanClassName = cleanString(className);
-        String cleanSubject = cleanString(subject);
-        
-        return createScoreId(teacherId, studentId, cleanClassName, cleanSubject, year, cleanSubject);
+        return createScoreId(teacherId, studentId, className, subject, year, semester);
     }
 
     // Static method to create score ID from parameters
     public static String createScoreId(Long teacherId, Long studentId, String className, 
                                       String subject, Integer year, String semester) {
-        // Clean the strings to avoid issues with special characters
-        String cleanClassName = cleanString(className);
-        String cleanSubject = cleanString(subject);
-        
-        return String.format("%d_%d_%d_%s_%s_%s", 
-            teacherId, studentId, year, semester, cleanClassName, cleanSubject);
+        return ScoreIdCodec.builder()
+                .teacherId(teacherId)
+                .studentId(studentId)
+                .year(year)
+                .semester(semester)
+                .className(className)
+                .subject(subject)
+                .build();
     }
 
     // Transient getter and setter for List<Integer>
     @Transient
     @JsonIgnore
     public List<Integer> getDdgtxList() {
-        if (ddgtx == null || ddgtx.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        try {
-            return Arrays.stream(ddgtx.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .map(Integer::parseInt)
-                    .collect(Collectors.toList());
-        } catch (NumberFormatException e) {
-            return new ArrayList<>();
+        return getRegularScores().toList();
+    }
+
+    @Transient
+    @JsonIgnore
+    public RegularScores getRegularScores() {
+        if (regularScores == null || regularScoresSource != ddgtx) {
+            regularScores = RegularScores.parse(ddgtx);
+            regularScoresSource = ddgtx;
         }
+        return regularScores;
     }
 
     @Transient
@@ -180,14 +193,23 @@ public class Score {
         }
     }
 
+    @PrePersist
+    @PreUpdate
+    public void syncDdgtxAggregates() {
+        RegularScores packed = getRegularScores();
+        this.ddgtxCount = packed.count();
+        this.ddgtxSum = (int) packed.sum();
+    }
+
     // Helper method to calculate average of regular scores
     @Transient
     public double getAverageDdgtx() {
-        List<Integer> scores = getDdgtxList();
-        if (scores.isEmpty()) {
-            return 0.0;
-        }
-        return scores.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+        return getRegularScores().average();
+    }
+
+    // Average of a comma-separated regular score string (shared with read-side projections)
+    public static double averageDdgtx(String ddgtx) {
+        return RegularScores.average(ddgtx);
     }
 
     // Helper method to automatically calculate TBM based on Vietnamese grading system
@@ -294,4 +316,18 @@ public class Score {
     
     public String getDdgtx() { return ddgtx; }
     public void setDdgtx(String ddgtx) { this.ddgtx = ddgtx; }
+
+    // Identity-based equality so equals/hashCode never initialize lazy associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Score other = (Score) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.example.studentapi.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Additive score measures at the finest (year, semester, grade, class, subject, teacher) grain.
+ * Every measure is a sum, so any coarser slice is a SUM over these rows.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Entity
+@Table(name = "score_rollups")
+public class ScoreRollup {
+
+    @EmbeddedId
+    private ScoreRollupId id;
+
+    @Column(name = "score_count", nullable = false)
+    private long scoreCount;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Column(name = "tbm_sum_tenths", nullable = false)
+    private long tbmSumTenths;
+
+    @Column(name = "tbm_sum_sq_tenths", nullable = false)
+    private long tbmSumSqTenths;
+
+    @Column(name = "pass_count", nullable = false)
+    private long passCount;
+
+    @Column(name = "ddgtx_count", nullable = false)
+    private long ddgtxCount;
+
+    @Column(name = "ddgtx_sum", nullable = false)
+    private long ddgtxSum;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ScoreRollup(ScoreRollupId id) {
+        this.id = id;
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) one score's contribution
+     */
+    public void apply(int sign, int tbmTenths, boolean graded, int ddgtxCount, long ddgtxSum) {
+        scoreCount += sign;
+        this.ddgtxCount += sign * (long) ddgtxCount;
+        this.ddgtxSum += sign * ddgtxSum;
+        if (graded) {
+            gradedCount += sign;
+            tbmSumTenths += sign * (long) tbmTenths;
+            tbmSumSqTenths += sign * (long) tbmTenths * tbmTenths;
+            if (tbmTenths >= ClassScoreStats.PASS_THRESHOLD_TENTHS) {
+                passCount += sign;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ScoreRollup other = (ScoreRollup) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.studentapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+/**
+ * Finest grain of the score rollup. Unknown grade levels and teachers are stored as 0
+ * because every column is part of the primary key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ScoreRollupId implements Serializable {
+
+    @Column(name = "year")
+    private Integer year;
+
+    @Column(name = "semester", length = 10)
+    private String semester;
+
+    @Column(name = "grade_level")
+    private Integer gradeLevel;
+
+    @Column(name = "class_name", length = 100)
+    private String className;
+
+    @Column(name = "subject", length = 100)
+    private String subject;
+
+    @Column(name = "teacher_id")
+    private Long teacherId;
+}
@@ -1,13 +1,18 @@
 package com.example.studentapi.model;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
-@Data
+@Getter
+@Setter
+@ToString
 @Entity
 @Table(name = "semester_schedules")
 public class SemesterSchedule {
@@ -64,4 +69,18 @@ public class SemesterSchedule {
         LocalDateTime now = LocalDateTime.now();
         return now.isAfter(endDateTime);
     }
+
+    // Identity-based equality so equals/hashCode never initialize lazy associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        SemesterSchedule other = (SemesterSchedule) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
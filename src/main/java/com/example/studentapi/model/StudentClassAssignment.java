@@ -1,16 +1,27 @@
 package com.example.studentapi.model;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"student", "classEntity"})
 @Entity
 @Table(name = "student_class_assignments")
+@NamedEntityGraph(name = StudentClassAssignment.GRAPH_WITH_STUDENT_AND_CLASS, attributeNodes = {
+    @NamedAttributeNode("student"),
+    @NamedAttributeNode("classEntity")
+})
 public class StudentClassAssignment {
+    public static final String GRAPH_WITH_STUDENT_AND_CLASS = "StudentClassAssignment.withStudentAndClass";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,4 +53,18 @@ public class StudentClassAssignment {
     private LocalDateTime updatedAt;
 
     private String enrolledBy; // Who enrolled this student
+
+    // Identity-based equality so equals/hashCode never initialize lazy associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        StudentClassAssignment other = (StudentClassAssignment) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.studentapi.model;
+
+import java.util.Arrays;
+
+/**
+ * Count of graded TBMs per tenth of a point (bin i holds TBM i/10, 0.0 to 10.0).
+ * TBM is stored with one decimal, so the histogram is an exact, mergeable quantile sketch:
+ * class histograms add up to grade and school level without touching the scores table.
+ */
+public class TbmHistogram {
+
+    public static final int BINS = 101;
+
+    // Serialized form: one 4-byte big-endian count per bin
+    private static final int BYTES = BINS * 4;
+
+    private final long[] counts;
+    private long total;
+
+    public TbmHistogram() {
+        this.counts = new long[BINS];
+    }
+
+    public static TbmHistogram fromBytes(byte[] bytes) {
+        TbmHistogram histogram = new TbmHistogram();
+        if (bytes == null) {
+            return histogram;
+        }
+        for (int bin = 0; bin < BINS && bin * 4 + 3 < bytes.length; bin++) {
+            int i = bin * 4;
+            long count = ((bytes[i] & 0xFFL) << 24) | ((bytes[i + 1] & 0xFFL) << 16)
+                | ((bytes[i + 2] & 0xFFL) << 8) | (bytes[i + 3] & 0xFFL);
+            histogram.counts[bin] = count;
+            histogram.total += count;
+        }
+        return histogram;
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        for (int bin = 0; bin < BINS; bin++) {
+            long count = Math.min(counts[bin], 0xFFFFFFFFL);
+            int i = bin * 4;
+            bytes[i] = (byte) (count >>> 24);
+            bytes[i + 1] = (byte) (count >>> 16);
+            bytes[i + 2] = (byte) (count >>> 8);
+            bytes[i + 3] = (byte) count;
+        }
+        return bytes;
+    }
+
+    public void add(int tbmTenths) {
+        add(tbmTenths, 1);
+    }
+
+    public void add(int tbmTenths, long count) {
+        int bin = clamp(tbmTenths);
+        counts[bin] += count;
+        total += count;
+    }
+
+    public void remove(int tbmTenths) {
+        int bin = clamp(tbmTenths);
+        if (counts[bin] > 0) {
+            counts[bin]--;
+            total--;
+        }
+    }
+
+    public TbmHistogram merge(TbmHistogram other) {
+        for (int bin = 0; bin < BINS; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long[] getCounts() {
+        return Arrays.copyOf(counts, BINS);
+    }
+
+    // Lowest and highest non-empty bin, -1 when empty
+    public int minTenths() {
+        for (int bin = 0; bin < BINS; bin++) {
+            if (counts[bin] > 0) return bin;
+        }
+        return -1;
+    }
+
+    public int maxTenths() {
+        for (int bin = BINS - 1; bin >= 0; bin--) {
+            if (counts[bin] > 0) return bin;
+        }
+        return -1;
+    }
+
+    /**
+     * Quantile with linear interpolation between the two nearest ranks
+     * (the median of an even count is the mean of the middle pair).
+     *
+     * @param q quantile between 0 and 1
+     * @return the TBM at that quantile, or null when the histogram is empty
+     */
+    public Double quantile(double q) {
+        if (total == 0) {
+            return null;
+        }
+        double position = Math.min(Math.max(q, 0.0), 1.0) * (total - 1);
+        long lowerRank = (long) Math.floor(position);
+        int lower = valueAtRank(lowerRank);
+        int upper = position > lowerRank ? valueAtRank(lowerRank + 1) : lower;
+        return (lower + (upper - lower) * (position - lowerRank)) / 10.0;
+    }
+
+    // Bin holding the value at a zero-based rank of the sorted values
+    private int valueAtRank(long rank) {
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += counts[bin];
+            if (seen > rank) return bin;
+        }
+        return BINS - 1;
+    }
+
+    private static int clamp(int tbmTenths) {
+        return Math.min(Math.max(tbmTenths, 0), BINS - 1);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.studentapi.model;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,11 +12,19 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"teacher", "schoolClass"})
 @Entity
 @Table(name = "teacher_classes")
+@NamedEntityGraph(name = TeacherClassAssignment.GRAPH_WITH_CLASS_AND_TEACHER, attributeNodes = {
+    @NamedAttributeNode("schoolClass"),
+    @NamedAttributeNode("teacher")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class TeacherClassAssignment {
+    public static final String GRAPH_WITH_CLASS_AND_TEACHER = "TeacherClassAssignment.withClassAndTeacher";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -144,4 +155,18 @@ public class TeacherClassAssignment {
     public void setClassEntity(SchoolClass classEntity) {
         this.schoolClass = classEntity;
     }
+
+    // Identity-based equality so equals/hashCode never initialize lazy associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        TeacherClassAssignment other = (TeacherClassAssignment) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.studentapi.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Yearly TBM (TBm CN) of one student in one class subject, maintained in the same
+ * transaction as every score write. Only graded semesters (TBM above zero) count;
+ * the yearly TBM is (HK1 + 2 x HK2) / 3 and stays null until both are graded.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@Entity
+@Table(name = "yearly_results")
+public class YearlyResult {
+
+    @EmbeddedId
+    private YearlyResultId id;
+
+    @Column(name = "student_name", length = 255)
+    private String studentName;
+
+    @Column(name = "hk1_tbm")
+    private Double hk1Tbm;
+
+    @Column(name = "hk2_tbm")
+    private Double hk2Tbm;
+
+    @Column(name = "yearly_tbm")
+    private Double yearlyTbm;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public YearlyResult(YearlyResultId id) {
+        this.id = id;
+    }
+
+    /**
+     * Sets the TBM of semester "1" or "2" and recomputes the yearly TBM; other semesters are ignored
+     * @param tbm the semester TBM, or null when the semester's score was removed
+     */
+    public void setSemesterTbm(String semester, Double tbm) {
+        Double graded = tbm != null && tbm > 0 ? tbm : null;
+        if ("1".equals(semester)) {
+            hk1Tbm = graded;
+        } else if ("2".equals(semester)) {
+            hk2Tbm = graded;
+        } else {
+            return;
+        }
+        yearlyTbm = yearlyTbm(hk1Tbm, hk2Tbm);
+    }
+
+    // Neither semester graded: the row can be dropped
+    public boolean isEmpty() {
+        return hk1Tbm == null && hk2Tbm == null;
+    }
+
+    /**
+     * (HK1 + 2 x HK2) / 3 rounded to one decimal, or null unless both semesters are graded
+     */
+    public static Double yearlyTbm(Double hk1Tbm, Double hk2Tbm) {
+        if (hk1Tbm == null || hk2Tbm == null || hk1Tbm <= 0 || hk2Tbm <= 0) {
+            return null;
+        }
+        return Math.round((hk1Tbm + 2 * hk2Tbm) / 3 * 10.0) / 10.0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        YearlyResult other = (YearlyResult) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
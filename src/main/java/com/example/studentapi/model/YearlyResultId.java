@@ -0,0 +1,28 @@
+package com.example.studentapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class YearlyResultId implements Serializable {
+
+    @Column(name = "class_name", length = 100)
+    private String className;
+
+    @Column(name = "year")
+    private Integer year;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "subject", length = 100)
+    private String subject;
+}
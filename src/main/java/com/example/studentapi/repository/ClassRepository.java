@@ -1,5 +1,6 @@
 package com.example.studentapi.repository;
 
+import com.example.studentapi.dto.SchoolClassView;
 import com.example.studentapi.model.SchoolClass;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,14 +12,37 @@ import java.util.Optional;
 
 @Repository
 public interface ClassRepository extends JpaRepository<SchoolClass, Long> {
+
+    String CLASS_VIEW_SELECT = "SELECT new com.example.studentapi.dto.SchoolClassView(c.id, c.name, c.className, "
+            + "c.gradeLevel, c.academicYear, c.semester, c.subject, c.isActive) FROM SchoolClass c ";
+
     Optional<SchoolClass> findByClassName(String className);
     Optional<SchoolClass> findByName(String name);
     List<SchoolClass> findByGradeLevelAndAcademicYear(int gradeLevel, int academicYear);
     List<SchoolClass> findByAcademicYearAndIsActiveTrue(int academicYear);
     
+    @Query("SELECT DISTINCT c.className FROM SchoolClass c WHERE c.gradeLevel = :gradeLevel AND c.academicYear = :year AND c.isActive = true")
+    List<String> findClassNamesByGradeLevel(@Param("gradeLevel") int gradeLevel, @Param("year") int year);
+    
+    @Query("SELECT c.gradeLevel FROM SchoolClass c WHERE c.className = :className AND c.academicYear = :year")
+    List<Integer> findGradeLevels(@Param("className") String className, @Param("year") int year);
+    
+    // (className, academicYear, gradeLevel) of every class, for resolving the grade of a score
+    @Query("SELECT c.className, c.academicYear, c.gradeLevel FROM SchoolClass c")
+    List<Object[]> findGradeLevelKeys();
+    
     @Query("SELECT c FROM SchoolClass c WHERE c.academicYear = :year AND c.semester = :semester AND c.isActive = true")
     List<SchoolClass> findByAcademicYearAndSemester(@Param("year") int year, @Param("semester") String semester);
     
     @Query("SELECT c FROM SchoolClass c WHERE c.academicYear = :year AND c.semester = :semester AND c.isActive = true")
     List<SchoolClass> findByAcademicYearAndSemesterInt(@Param("year") int year, @Param("semester") String semester);
+    
+    @Query(CLASS_VIEW_SELECT + "WHERE c.id = :id")
+    Optional<SchoolClassView> findViewById(@Param("id") Long id);
+    
+    @Query(CLASS_VIEW_SELECT + "WHERE c.isActive = true")
+    List<SchoolClassView> findActiveViews();
+    
+    @Query(CLASS_VIEW_SELECT + "WHERE c.academicYear = :year AND c.semester = :semester AND c.isActive = true")
+    List<SchoolClassView> findViewsByAcademicYearAndSemester(@Param("year") int year, @Param("semester") String semester);
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.studentapi.repository;
+
+import com.example.studentapi.model.ClassScoreStats;
+import com.example.studentapi.model.ClassScoreStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClassScoreStatsRepository extends JpaRepository<ClassScoreStats, ClassScoreStatsId> {
+
+    // Row lock so concurrent score writes to the same class subject serialize their increments
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT st FROM ClassScoreStats st WHERE st.id = :id")
+    Optional<ClassScoreStats> findForUpdate(@Param("id") ClassScoreStatsId id);
+
+    // Seeds an empty row so findForUpdate has a row to lock even for the first score of a class subject;
+    // concurrent first writers block on the key instead of both inserting it
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO class_score_stats (class_name, subject, year, semester, score_count, graded_count, "
+         + "tbm_sum_tenths, tbm_sum_sq_tenths, pass_count, tbm_histogram, updated_at) "
+         + "VALUES (:className, :subject, :year, :semester, 0, 0, 0, 0, 0, :histogram, CURRENT_TIMESTAMP) "
+         + "ON DUPLICATE KEY UPDATE score_count = score_count", nativeQuery = true)
+    int insertIfAbsent(@Param("className") String className,
+                       @Param("subject") String subject,
+                       @Param("year") int year,
+                       @Param("semester") String semester,
+                       @Param("histogram") byte[] histogram);
+
+    // Stats rows of a term, optionally restricted to some classes and one subject (null = all subjects)
+    @Query("SELECT st FROM ClassScoreStats st WHERE st.id.className IN :classNames AND st.id.year = :year "
+         + "AND st.id.semester = :semester AND (:subject IS NULL OR st.id.subject = :subject)")
+    List<ClassScoreStats> findForClasses(@Param("classNames") Collection<String> classNames,
+                                         @Param("subject") String subject,
+                                         @Param("year") int year,
+                                         @Param("semester") String semester);
+
+    @Query("SELECT st FROM ClassScoreStats st WHERE st.id.year = :year AND st.id.semester = :semester "
+         + "AND (:subject IS NULL OR st.id.subject = :subject)")
+    List<ClassScoreStats> findForTerm(@Param("subject") String subject,
+                                      @Param("year") int year,
+                                      @Param("semester") String semester);
+
+    // Rows from before tbm_histogram existed; their histograms need a rebuild
+    boolean existsByTbmHistogramIsNull();
+}
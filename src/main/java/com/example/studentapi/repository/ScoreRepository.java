@@ -1,15 +1,38 @@
 package com.example.studentapi.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.example.studentapi.dto.GradebookRow;
+import com.example.studentapi.dto.RegularScoreStats;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.dto.TrendPoint;
 import com.example.studentapi.model.Score;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ScoreRepository extends JpaRepository<Score, String> {
+public interface ScoreRepository extends JpaRepository<Score, Long> {
+
+    String SCORE_VIEW_SELECT = "SELECT new com.example.studentapi.dto.ScoreView(s.id, s.studentId, s.teacherId, s.classId, "
+            + "s.className, s.subject, s.semester, s.year, s.ddgtx, s.ddggk, s.ddgck, s.tbm, s.comment, "
+            + "s.studentName, s.teacherName) FROM Score s ";
+    
+    // ========== LEGACY STRING ID LOOKUPS ==========
+    
+    @Query("SELECT s FROM Score s WHERE s.id = :scoreId")
+    Optional<Score> findByScoreId(@Param("scoreId") String scoreId);
+    
+    @Query("SELECT COUNT(s) > 0 FROM Score s WHERE s.id = :scoreId")
+    boolean existsByScoreId(@Param("scoreId") String scoreId);
+    
+    @Query("SELECT s FROM Score s WHERE s.id IN :scoreIds")
+    List<Score> findAllByScoreIds(@Param("scoreIds") Collection<String> scoreIds);
     
     // Find scores by student ID
     List<Score> findByStudentId(Long studentId);
@@ -60,6 +83,30 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
     // Find scores by teacher ID, year and semester
     List<Score> findByTeacherIdAndYearAndSemester(Long teacherId, int year, String semester);
     
+    // ========== READ-SIDE PROJECTIONS ==========
+    
+    @Query(SCORE_VIEW_SELECT)
+    List<ScoreView> findAllViews();
+    
+    @Query(SCORE_VIEW_SELECT + "WHERE s.teacherId = :teacherId")
+    List<ScoreView> findViewsByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Query(SCORE_VIEW_SELECT + "WHERE s.id = :scoreId")
+    Optional<ScoreView> findViewByScoreId(@Param("scoreId") String scoreId);
+    
+    @Query(SCORE_VIEW_SELECT + "WHERE s.studentId = :studentId")
+    List<ScoreView> findViewsByStudentId(@Param("studentId") Long studentId);
+    
+    // Ordered by the surrogate key so LIMIT/OFFSET pages neither repeat nor skip rows
+    @Query(value = SCORE_VIEW_SELECT + "WHERE s.classId = :classId ORDER BY s.pk",
+           countQuery = "SELECT COUNT(s) FROM Score s WHERE s.classId = :classId")
+    Page<ScoreView> findViewsByClassId(@Param("classId") Long classId, Pageable pageable);
+    
+    @Query(SCORE_VIEW_SELECT + "WHERE s.className = :className AND s.year = :year AND s.semester = :semester")
+    List<ScoreView> findViewsByClassNameAndYearAndSemester(@Param("className") String className,
+                                                          @Param("year") int year,
+                                                          @Param("semester") String semester);
+    
     // ========== SECURITY QUERIES ==========
     
     // Find score by custom ID and teacher ID for authorization
@@ -98,6 +145,70 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
                                   @Param("year") int year, 
                                   @Param("semester") String semester);
     
+    // Graded TBM extremes for a class subject: one row of [min, max]
+    @Query("SELECT MIN(s.tbm), MAX(s.tbm) FROM Score s WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm > 0")
+    List<Object[]> findTbmRangeForClass(@Param("className") String className, 
+                                       @Param("subject") String subject, 
+                                       @Param("year") int year, 
+                                       @Param("semester") String semester);
+
+    // Graded TBM distribution for a class subject: rows of [tbm, count]
+    @Query("SELECT s.tbm, COUNT(s) FROM Score s WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm > 0 GROUP BY s.tbm")
+    List<Object[]> countTbmForClass(@Param("className") String className, 
+                                    @Param("subject") String subject, 
+                                    @Param("year") int year, 
+                                    @Param("semester") String semester);
+    
+    // Full recomputation source for class_score_stats:
+    // [className, subject, year, semester, count, gradedCount, tbmSum, tbmSumSq, tbmMin, tbmMax, passCount]
+    // tbm is never negative, so ungraded rows (tbm = 0) add nothing to the plain sum of squares;
+    // HQL cannot parse arithmetic inside a CASE branch.
+    @Query("SELECT s.className, s.subject, s.year, s.semester, COUNT(s), "
+         + "SUM(CASE WHEN s.tbm > 0 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN s.tbm > 0 THEN s.tbm ELSE 0 END), "
+         + "SUM(s.tbm * s.tbm), "
+         + "MIN(CASE WHEN s.tbm > 0 THEN s.tbm END), MAX(CASE WHEN s.tbm > 0 THEN s.tbm END), "
+         + "SUM(CASE WHEN s.tbm >= 5.0 THEN 1 ELSE 0 END) "
+         + "FROM Score s GROUP BY s.className, s.subject, s.year, s.semester")
+    List<Object[]> aggregateClassScoreStats();
+    
+    // Source for rebuilding yearly_results: [className, subject, year, studentId, studentName, hk1 TBM, hk2 TBM]
+    @Query("SELECT s.className, s.subject, s.year, s.studentId, MAX(s.studentName), "
+         + "MAX(CASE WHEN s.semester = '1' THEN s.tbm END), MAX(CASE WHEN s.semester = '2' THEN s.tbm END) "
+         + "FROM Score s WHERE s.studentId IS NOT NULL GROUP BY s.className, s.subject, s.year, s.studentId")
+    List<Object[]> aggregateYearlyResults();
+    
+    // Keyset-paged source for the analytics column store:
+    // [pk, id, studentId, teacherId, className, subject, year, semester, tbm, ddgtxCount, ddgtxSum, ddgtx (only when not backfilled)]
+    @Query("SELECT s.pk, s.id, s.studentId, s.teacherId, s.className, s.subject, s.year, s.semester, s.tbm, "
+         + "s.ddgtxCount, s.ddgtxSum, CASE WHEN s.ddgtxCount IS NULL THEN s.ddgtx ELSE NULL END "
+         + "FROM Score s WHERE s.pk > :afterPk ORDER BY s.pk")
+    List<Object[]> findAnalyticsColumns(@Param("afterPk") long afterPk, Pageable pageable);
+    
+    // Histogram source for class_score_stats: [className, subject, year, semester, tbm, count] of graded scores
+    @Query("SELECT s.className, s.subject, s.year, s.semester, s.tbm, COUNT(s) FROM Score s WHERE s.tbm > 0 "
+         + "GROUP BY s.className, s.subject, s.year, s.semester, s.tbm")
+    List<Object[]> countTbmByClassScoreStats();
+    
+    // Regular-score statistics from the stored ddgtx aggregates (one indexed aggregate, no row loading)
+    @Query("SELECT new com.example.studentapi.dto.RegularScoreStats(s.subject, COUNT(s), SUM(s.ddgtxCount), SUM(s.ddgtxSum), "
+         + "AVG(s.ddgtxSum * 1.0 / s.ddgtxCount)) FROM Score s "
+         + "WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.ddgtxCount > 0 "
+         + "GROUP BY s.subject")
+    Optional<RegularScoreStats> getRegularScoreStatsForClass(@Param("className") String className, 
+                                                            @Param("subject") String subject, 
+                                                            @Param("year") int year, 
+                                                            @Param("semester") String semester);
+    
+    // Regular-score statistics for every subject of a class
+    @Query("SELECT new com.example.studentapi.dto.RegularScoreStats(s.subject, COUNT(s), SUM(s.ddgtxCount), SUM(s.ddgtxSum), "
+         + "AVG(s.ddgtxSum * 1.0 / s.ddgtxCount)) FROM Score s "
+         + "WHERE s.className = :className AND s.year = :year AND s.semester = :semester AND s.ddgtxCount > 0 "
+         + "GROUP BY s.subject ORDER BY s.subject")
+    List<RegularScoreStats> getRegularScoreStatsBySubject(@Param("className") String className, 
+                                                         @Param("year") int year, 
+                                                         @Param("semester") String semester);
+    
     // Get student count for class, subject, year, and semester
     @Query("SELECT COUNT(DISTINCT s.studentId) FROM Score s WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester")
     Long getStudentCountForClass(@Param("className") String className, 
@@ -105,13 +216,65 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
                                 @Param("year") int year, 
                                 @Param("semester") String semester);
     
-    // Get top scores for class, subject, year, and semester (ordered by TBM descending)
+    // Get top scores for class, subject, year, and semester (ordered by TBM descending).
+    // The page size is the limit; idx_scores_top_tbm lets MySQL read only those index entries.
     @Query("SELECT s FROM Score s WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm IS NOT NULL ORDER BY s.tbm DESC")
     List<Score> findTopScoresForClass(@Param("className") String className, 
+                                     @Param("subject") String subject, 
+                                     @Param("year") int year, 
+                                     @Param("semester") String semester,
+                                     Pageable pageable);
+    
+    @Query(SCORE_VIEW_SELECT + "WHERE s.className = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm IS NOT NULL ORDER BY s.tbm DESC")
+    List<ScoreView> findTopViewsForClass(@Param("className") String className, 
+                                        @Param("subject") String subject, 
+                                        @Param("year") int year, 
+                                        @Param("semester") String semester,
+                                        Pageable pageable);
+    
+    // ========== RANKING QUERIES (window functions) ==========
+    // Rows: [studentId, studentName, className, score, subjectCount, classRank, gradeRank]
+    
+    @Query(value = "SELECT s.student_id, s.student_name, s.class_name, s.tbm, 1, "
+         + "RANK() OVER (ORDER BY s.tbm DESC), NULL "
+         + "FROM scores s WHERE s.class_name = :className AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm > 0 "
+         + "ORDER BY 6, s.student_name", nativeQuery = true)
+    List<Object[]> rankClassBySubject(@Param("className") String className, 
+                                     @Param("subject") String subject, 
+                                     @Param("year") int year, 
+                                     @Param("semester") String semester);
+    
+    @Query(value = "SELECT s.student_id, MAX(s.student_name), s.class_name, AVG(s.tbm), COUNT(*), "
+         + "RANK() OVER (ORDER BY AVG(s.tbm) DESC), NULL "
+         + "FROM scores s WHERE s.class_name = :className AND s.year = :year AND s.semester = :semester AND s.tbm > 0 "
+         + "GROUP BY s.student_id, s.class_name "
+         + "ORDER BY 6, 2", nativeQuery = true)
+    List<Object[]> rankClassOverall(@Param("className") String className, 
+                                   @Param("year") int year, 
+                                   @Param("semester") String semester);
+    
+    @Query(value = "SELECT s.student_id, s.student_name, s.class_name, s.tbm, 1, "
+         + "RANK() OVER (PARTITION BY s.class_name ORDER BY s.tbm DESC), RANK() OVER (ORDER BY s.tbm DESC) "
+         + "FROM scores s WHERE s.class_name IN ("
+         + "SELECT c.class_name FROM classes c WHERE c.grade_level = :gradeLevel AND c.academic_year = :year AND c.is_active = true) "
+         + "AND s.subject = :subject AND s.year = :year AND s.semester = :semester AND s.tbm > 0 "
+         + "ORDER BY 7, s.student_name", nativeQuery = true)
+    List<Object[]> rankGradeBySubject(@Param("gradeLevel") int gradeLevel, 
                                      @Param("subject") String subject, 
                                      @Param("year") int year, 
                                      @Param("semester") String semester);
     
+    @Query(value = "SELECT s.student_id, MAX(s.student_name), s.class_name, AVG(s.tbm), COUNT(*), "
+         + "RANK() OVER (PARTITION BY s.class_name ORDER BY AVG(s.tbm) DESC), RANK() OVER (ORDER BY AVG(s.tbm) DESC) "
+         + "FROM scores s WHERE s.class_name IN ("
+         + "SELECT c.class_name FROM classes c WHERE c.grade_level = :gradeLevel AND c.academic_year = :year AND c.is_active = true) "
+         + "AND s.year = :year AND s.semester = :semester AND s.tbm > 0 "
+         + "GROUP BY s.student_id, s.class_name "
+         + "ORDER BY 7, 2", nativeQuery = true)
+    List<Object[]> rankGradeOverall(@Param("gradeLevel") int gradeLevel, 
+                                   @Param("year") int year, 
+                                   @Param("semester") String semester);
+    
     // ========== EXPORT QUERIES WITH JOINS ==========
     
     // Custom query to find scores with student and teacher names for export
@@ -195,6 +358,11 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
     @Query("SELECT s FROM Score s WHERE s.studentId = :studentId AND s.subject = :subject ORDER BY s.year ASC, s.semester ASC")
     List<Score> findScoreTrendsForStudent(@Param("studentId") Long studentId, @Param("subject") String subject);
     
+    // Compact TBM series of every subject of a student; covered by idx_scores_student_trend
+    @Query("SELECT new com.example.studentapi.dto.TrendPoint(s.subject, s.year, s.semester, s.tbm) FROM Score s "
+         + "WHERE s.studentId = :studentId ORDER BY s.subject ASC, s.year ASC, s.semester ASC")
+    List<TrendPoint> findTrendPointsForStudent(@Param("studentId") Long studentId);
+    
     // Find class performance comparison across subjects
     @Query("SELECT s.subject, AVG(s.tbm) as avgScore FROM Score s WHERE s.className = :className AND s.year = :year AND s.semester = :semester GROUP BY s.subject ORDER BY avgScore DESC")
     List<Object[]> findClassPerformanceBySubject(@Param("className") String className, 
@@ -214,6 +382,13 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
     @Query("SELECT COUNT(s) > 0 FROM Score s WHERE s.studentId = :studentId")
     boolean existsStudentInScores(@Param("studentId") Long studentId);
     
+    // Export data version of a teacher's scores: one row of [count, max updatedAt]; covered by idx_scores_teacher_updated
+    @Query("SELECT COUNT(s), MAX(s.updatedAt) FROM Score s WHERE s.teacherId = :teacherId")
+    List<Object[]> getExportFingerprintForTeacher(@Param("teacherId") Long teacherId);
+    
+    @Query("SELECT COUNT(s), MAX(s.updatedAt) FROM Score s")
+    List<Object[]> getExportFingerprint();
+    
     // Check if teacher exists in the system (through scores)
     @Query("SELECT COUNT(s) > 0 FROM Score s WHERE s.teacherId = :teacherId")
     boolean existsTeacherInScores(@Param("teacherId") Long teacherId);
@@ -222,6 +397,50 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
     @Query("SELECT COUNT(s) > 0 FROM Score s WHERE s.className = :className")
     boolean existsClassInScores(@Param("className") String className);
     
+    // ========== GRADEBOOK QUERIES ==========
+    
+    // One row per student and class subject year with both semesters pivoted side by side
+    String GRADEBOOK_SELECT = "SELECT new com.example.studentapi.dto.GradebookRow(s.studentId, MAX(s.studentName), "
+         + "s.className, s.subject, s.year, MAX(s.teacherName), "
+         + "MAX(CASE WHEN s.semester = '1' THEN s.pk END), MAX(CASE WHEN s.semester = '1' THEN s.ddgtxSum END), "
+         + "MAX(CASE WHEN s.semester = '1' THEN s.ddgtxCount END), MAX(CASE WHEN s.semester = '1' THEN s.ddggk END), "
+         + "MAX(CASE WHEN s.semester = '1' THEN s.ddgck END), MAX(CASE WHEN s.semester = '1' THEN s.tbm END), "
+         + "MAX(CASE WHEN s.semester = '1' THEN s.comment END), "
+         + "MAX(CASE WHEN s.semester = '2' THEN s.pk END), MAX(CASE WHEN s.semester = '2' THEN s.ddgtxSum END), "
+         + "MAX(CASE WHEN s.semester = '2' THEN s.ddgtxCount END), MAX(CASE WHEN s.semester = '2' THEN s.ddggk END), "
+         + "MAX(CASE WHEN s.semester = '2' THEN s.ddgck END), MAX(CASE WHEN s.semester = '2' THEN s.tbm END), "
+         + "MAX(CASE WHEN s.semester = '2' THEN s.comment END)) "
+         + "FROM Score s ";
+    String GRADEBOOK_GROUP = " GROUP BY s.className, s.subject, s.year, s.studentId "
+         + "ORDER BY s.className, s.subject, s.year";
+    
+    // Range over the (class_name, subject, year) prefix of idx_scores_top_tbm
+    @Query(GRADEBOOK_SELECT + "WHERE s.className = :className AND s.subject = :subject AND s.year = :year" + GRADEBOOK_GROUP)
+    List<GradebookRow> findGradebook(@Param("className") String className,
+                                     @Param("subject") String subject,
+                                     @Param("year") Integer year);
+    
+    // Range over idx_scores_composite (teacher_id, class_name, subject, year, semester)
+    @Query(GRADEBOOK_SELECT + "WHERE s.teacherId = :teacherId" + GRADEBOOK_GROUP)
+    List<GradebookRow> findGradebookForTeacher(@Param("teacherId") Long teacherId);
+    
+    @Query(GRADEBOOK_SELECT + GRADEBOOK_GROUP)
+    List<GradebookRow> findGradebookAll();
+    
+    // ========== CSV EXPORT QUERIES ==========
+    
+    // Keyset pages in the CSV column order:
+    // [pk, studentId, teacherId, className, subject, semester, year, ddgtx, ddggk, ddgck, studentName, teacherName, comment, tbm]
+    String CSV_SELECT = "SELECT s.pk, s.studentId, s.teacherId, s.className, s.subject, s.semester, s.year, s.ddgtx, "
+         + "s.ddggk, s.ddgck, s.studentName, s.teacherName, s.comment, s.tbm FROM Score s ";
+    
+    @Query(CSV_SELECT + "WHERE s.pk > :afterPk ORDER BY s.pk")
+    List<Object[]> findCsvRows(@Param("afterPk") long afterPk, Pageable pageable);
+    
+    // Teacher rows via idx_scores_teacher_updated, each page sorted by pk (bounded by the teacher's scores)
+    @Query(CSV_SELECT + "WHERE s.teacherId = :teacherId AND s.pk > :afterPk ORDER BY s.pk")
+    List<Object[]> findCsvRowsForTeacher(@Param("teacherId") Long teacherId, @Param("afterPk") long afterPk, Pageable pageable);
+    
     // ========== CLEANUP AND MAINTENANCE QUERIES ==========
     
     // Find orphaned scores (without corresponding student/teacher records)
@@ -232,6 +451,15 @@ public interface ScoreRepository extends JpaRepository<Score, String> {
     @Query("SELECT s FROM Score s WHERE s.tbm IS NULL OR s.tbm < 0 OR s.tbm > 10")
     List<Score> findScoresWithInvalidTbm();
     
+    // Rows written before ddgtx_count/ddgtx_sum existed: [pk, ddgtx]
+    @Query("SELECT s.pk, s.ddgtx FROM Score s WHERE s.ddgtxCount IS NULL ORDER BY s.pk")
+    List<Object[]> findMissingDdgtxAggregates(Pageable pageable);
+    
+    // Backfill without touching updated_at
+    @Modifying
+    @Query("UPDATE Score s SET s.ddgtxCount = :count, s.ddgtxSum = :sum, s.updatedAt = s.updatedAt WHERE s.pk = :pk")
+    int updateDdgtxAggregates(@Param("pk") Long pk, @Param("count") int count, @Param("sum") int sum);
+    
     // Find scores missing student or teacher names
     @Query("SELECT s FROM Score s WHERE s.studentName IS NULL OR s.studentName = '' OR s.teacherName IS NULL OR s.teacherName = ''")
     List<Score> findScoresWithMissingNames();
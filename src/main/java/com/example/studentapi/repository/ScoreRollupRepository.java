@@ -0,0 +1,60 @@
+package com.example.studentapi.repository;
+
+import com.example.studentapi.model.ScoreRollup;
+import com.example.studentapi.model.ScoreRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScoreRollupRepository extends JpaRepository<ScoreRollup, ScoreRollupId> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ScoreRollup r WHERE r.id = :id")
+    Optional<ScoreRollup> findForUpdate(@Param("id") ScoreRollupId id);
+
+    // Seeds an empty row so findForUpdate has a row to lock even for the first score of a slice
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO score_rollups (year, semester, grade_level, class_name, subject, teacher_id, "
+         + "score_count, graded_count, tbm_sum_tenths, tbm_sum_sq_tenths, pass_count, ddgtx_count, ddgtx_sum, updated_at) "
+         + "VALUES (:year, :semester, :gradeLevel, :className, :subject, :teacherId, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP) "
+         + "ON DUPLICATE KEY UPDATE score_count = score_count", nativeQuery = true)
+    int insertIfAbsent(@Param("year") int year,
+                       @Param("semester") String semester,
+                       @Param("gradeLevel") int gradeLevel,
+                       @Param("className") String className,
+                       @Param("subject") String subject,
+                       @Param("teacherId") Long teacherId);
+
+    // Grade level of a class in a given academic year
+    @Query("SELECT c.gradeLevel FROM SchoolClass c WHERE c.className = :className AND c.academicYear = :year")
+    List<Integer> findGradeLevel(@Param("className") String className, @Param("year") int year);
+
+    @Modifying
+    @Query(value = "DELETE FROM score_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    // Full refresh straight from scores, set-based
+    @Modifying
+    @Query(value = "INSERT INTO score_rollups (year, semester, grade_level, class_name, subject, teacher_id, "
+         + "score_count, graded_count, tbm_sum_tenths, tbm_sum_sq_tenths, pass_count, ddgtx_count, ddgtx_sum, updated_at) "
+         + "SELECT x.year, x.semester, x.grade_level, x.class_name, x.subject, x.teacher_id, "
+         + "COUNT(*), SUM(CASE WHEN x.tenths > 0 THEN 1 ELSE 0 END), "
+         + "SUM(CASE WHEN x.tenths > 0 THEN x.tenths ELSE 0 END), "
+         + "SUM(CASE WHEN x.tenths > 0 THEN x.tenths * x.tenths ELSE 0 END), "
+         + "SUM(CASE WHEN x.tenths >= 50 THEN 1 ELSE 0 END), "
+         + "SUM(x.ddgtx_count), SUM(x.ddgtx_sum), CURRENT_TIMESTAMP "
+         + "FROM (SELECT s.year, s.semester, s.class_name, s.subject, COALESCE(s.teacher_id, 0) AS teacher_id, "
+         + "COALESCE((SELECT MAX(c.grade_level) FROM classes c WHERE c.class_name = s.class_name AND c.academic_year = s.year), 0) AS grade_level, "
+         + "COALESCE(ROUND(s.tbm * 10), 0) AS tenths, COALESCE(s.ddgtx_count, 0) AS ddgtx_count, COALESCE(s.ddgtx_sum, 0) AS ddgtx_sum "
+         + "FROM scores s) x "
+         + "GROUP BY x.year, x.semester, x.grade_level, x.class_name, x.subject, x.teacher_id", nativeQuery = true)
+    int insertRollupsFromScores();
+}
@@ -1,6 +1,10 @@
 package com.example.studentapi.repository;
 
+import com.example.studentapi.dto.RosterEntryView;
 import com.example.studentapi.model.StudentClassAssignment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,10 +16,12 @@ import java.util.List;
 public interface StudentClassAssignmentRepository extends JpaRepository<StudentClassAssignment, Long> {
     
     // Use explicit queries to avoid Spring Data JPA parsing issues
+    @EntityGraph(StudentClassAssignment.GRAPH_WITH_STUDENT_AND_CLASS)
     @Query("SELECT sca FROM StudentClassAssignment sca WHERE sca.student.id = :studentId AND sca.isActive = true")
     List<StudentClassAssignment> findByStudentIdAndIsActiveTrue(@Param("studentId") Long studentId);
     
     // Use explicit query instead of method name parsing
+    @EntityGraph(StudentClassAssignment.GRAPH_WITH_STUDENT_AND_CLASS)
     @Query("SELECT sca FROM StudentClassAssignment sca WHERE sca.classEntity.id = :classEntityId AND sca.isActive = true")
     List<StudentClassAssignment> findByClassEntityIdAndIsActiveTrue(@Param("classEntityId") Long classEntityId);
     
@@ -27,10 +33,21 @@ public interface StudentClassAssignmentRepository extends JpaRepository<StudentC
         @Param("semester") String semester
     );
     
-    @Query("SELECT sca FROM StudentClassAssignment sca WHERE sca.classEntity.id = :classId AND sca.academicYear = :academicYear AND (sca.semester = :semester OR sca.semester = 'BOTH') AND sca.isActive = true")
-    List<StudentClassAssignment> findStudentsInClass(
+    @Query("SELECT new com.example.studentapi.dto.RosterEntryView(sca.id, st.id, st.name, st.gender, st.birthday, "
+         + "sca.classEntity.id, sca.academicYear, sca.semester, sca.studentNumber) "
+         + "FROM StudentClassAssignment sca JOIN sca.student st "
+         + "WHERE sca.classEntity.id = :classId AND sca.academicYear = :academicYear AND (sca.semester = :semester OR sca.semester = 'BOTH') AND sca.isActive = true")
+    List<RosterEntryView> findRosterForClass(
         @Param("classId") Long classId,
         @Param("academicYear") int academicYear,
         @Param("semester") String semester
     );
+    
+    // Name then assignment id, a total order so pages stay stable across requests
+    @Query(value = "SELECT new com.example.studentapi.dto.RosterEntryView(sca.id, st.id, st.name, st.gender, st.birthday, "
+         + "sca.classEntity.id, sca.academicYear, sca.semester, sca.studentNumber) "
+         + "FROM StudentClassAssignment sca JOIN sca.student st "
+         + "WHERE sca.classEntity.id = :classId AND sca.isActive = true ORDER BY st.name, sca.id",
+           countQuery = "SELECT COUNT(sca) FROM StudentClassAssignment sca WHERE sca.classEntity.id = :classId AND sca.isActive = true")
+    Page<RosterEntryView> findRosterPageForClass(@Param("classId") Long classId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,10 +1,21 @@
 package com.example.studentapi.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.studentapi.model.Student;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
-    // Additional query methods can be defined here if needed
-}
\ No newline at end of file
+
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // [id, name, birthday] of the students with any of the names, for import deduplication
+    @Query("SELECT s.id, s.name, s.birthday FROM Student s WHERE s.name IN :names")
+    List<Object[]> findIdentitiesByNameIn(@Param("names") Collection<String> names);
+}
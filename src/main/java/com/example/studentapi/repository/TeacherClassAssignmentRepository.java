@@ -1,6 +1,10 @@
 package com.example.studentapi.repository;
 
+import com.example.studentapi.dto.TeacherAssignmentView;
 import com.example.studentapi.model.TeacherClassAssignment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,7 +13,12 @@ import java.util.List;
 
 @Repository
 public interface TeacherClassAssignmentRepository extends JpaRepository<TeacherClassAssignment, Long> {
+
+    String ASSIGNMENT_VIEW_SELECT = "SELECT new com.example.studentapi.dto.TeacherAssignmentView(tca.id, tca.teacherId, t.name, "
+            + "c.id, c.className, tca.subject, tca.academicYear, tca.semester, tca.role, tca.isPrimaryTeacher, "
+            + "tca.isActive, tca.assignedBy) FROM TeacherClassAssignment tca JOIN tca.schoolClass c LEFT JOIN tca.teacher t ";
     
+    @EntityGraph(TeacherClassAssignment.GRAPH_WITH_CLASS_AND_TEACHER)
     List<TeacherClassAssignment> findByTeacherIdAndIsActiveTrue(Long teacherId);
 
     // Fixed method name to use schoolClassId instead of classId
@@ -26,10 +35,12 @@ public interface TeacherClassAssignmentRepository extends JpaRepository<TeacherC
     boolean existsByTeacherIdAndSchoolClassIdAndIsActive(@Param("teacherId") Long teacherId, @Param("schoolClassId") Long schoolClassId);
     
     // Get all classes for a teacher
+    @EntityGraph(TeacherClassAssignment.GRAPH_WITH_CLASS_AND_TEACHER)
     @Query("SELECT tca FROM TeacherClassAssignment tca WHERE tca.teacherId = :teacherId AND tca.isActive = true")
     List<TeacherClassAssignment> findActiveAssignmentsByTeacherId(@Param("teacherId") Long teacherId);
     
     // Get all teachers for a class
+    @EntityGraph(TeacherClassAssignment.GRAPH_WITH_CLASS_AND_TEACHER)
     @Query("SELECT tca FROM TeacherClassAssignment tca WHERE tca.schoolClass.id = :schoolClassId AND tca.isActive = true")
     List<TeacherClassAssignment> findActiveAssignmentsBySchoolClassId(@Param("schoolClassId") Long schoolClassId);
 
@@ -45,6 +56,7 @@ public interface TeacherClassAssignmentRepository extends JpaRepository<TeacherC
     @Query("SELECT tca FROM TeacherClassAssignment tca WHERE tca.teacherId = :teacherId AND tca.schoolClass.id = :schoolClassId")
     List<TeacherClassAssignment> findByTeacherIdAndSchoolClassIdQuery(@Param("teacherId") Long teacherId, @Param("schoolClassId") Long schoolClassId);
     
+    @EntityGraph(TeacherClassAssignment.GRAPH_WITH_CLASS_AND_TEACHER)
     @Query("SELECT tca FROM TeacherClassAssignment tca WHERE tca.teacherId = :teacherId AND tca.academicYear = :academicYear AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true")
     List<TeacherClassAssignment> findByTeacherIdAndAcademicYearAndSemester(
         @Param("teacherId") Long teacherId, 
@@ -69,6 +81,43 @@ public interface TeacherClassAssignmentRepository extends JpaRepository<TeacherC
         @Param("semester") String semester
     );
     
+    // Single query replacing the per-assignment isStudentInTeacherClass loop
+    @Query("SELECT COUNT(sca) > 0 FROM StudentClassAssignment sca, TeacherClassAssignment tca "
+         + "WHERE tca.teacherId = :teacherId AND tca.schoolClass = sca.classEntity "
+         + "AND tca.academicYear = :academicYear AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true "
+         + "AND sca.student.id = :studentId AND sca.academicYear = :academicYear AND (sca.semester = :semester OR sca.semester = 'BOTH') AND sca.isActive = true")
+    boolean isStudentInAnyTeacherClass(
+        @Param("teacherId") Long teacherId,
+        @Param("studentId") Long studentId,
+        @Param("academicYear") int academicYear,
+        @Param("semester") String semester
+    );
+
+    @Query("SELECT DISTINCT c.className FROM TeacherClassAssignment tca JOIN tca.schoolClass c WHERE tca.teacherId = :teacherId AND tca.academicYear = :academicYear AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true")
+    List<String> findAccessibleClassNames(
+        @Param("teacherId") Long teacherId,
+        @Param("academicYear") int academicYear,
+        @Param("semester") String semester
+    );
+
+    @Query("SELECT COUNT(tca) > 0 FROM TeacherClassAssignment tca JOIN tca.schoolClass c WHERE tca.teacherId = :teacherId AND c.className = :className AND tca.academicYear = :academicYear AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true")
+    boolean existsActiveAssignment(
+        @Param("teacherId") Long teacherId,
+        @Param("className") String className,
+        @Param("academicYear") int academicYear,
+        @Param("semester") String semester
+    );
+    
+    // Whether the teacher teaches the subject in any active class of the grade level
+    @Query("SELECT COUNT(tca) > 0 FROM TeacherClassAssignment tca JOIN tca.schoolClass c WHERE tca.teacherId = :teacherId AND c.gradeLevel = :gradeLevel AND c.isActive = true AND tca.subject = :subject AND tca.academicYear = :academicYear AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true")
+    boolean existsActiveAssignmentInGrade(
+        @Param("teacherId") Long teacherId,
+        @Param("gradeLevel") int gradeLevel,
+        @Param("subject") String subject,
+        @Param("academicYear") int academicYear,
+        @Param("semester") String semester
+    );
+    
     @Query("SELECT COUNT(sca) > 0 FROM StudentClassAssignment sca WHERE sca.student.id = :studentId AND sca.classEntity.id = :schoolClassId AND sca.academicYear = :academicYear AND (sca.semester = :semester OR sca.semester = 'BOTH') AND sca.isActive = true")
     boolean isStudentInTeacherClass(
         @Param("studentId") Long studentId, 
@@ -86,4 +135,18 @@ public interface TeacherClassAssignmentRepository extends JpaRepository<TeacherC
         @Param("academicYear") Integer academicYear,
         @Param("semester") String semester
     );
-}
+    
+    // Projection for the teacher's class list (one join query, no lazy proxies)
+    @Query(ASSIGNMENT_VIEW_SELECT + "WHERE tca.teacherId = :teacherId AND tca.isActive = true")
+    List<TeacherAssignmentView> findActiveViewsByTeacherId(@Param("teacherId") Long teacherId);
+    
+    @Query(value = ASSIGNMENT_VIEW_SELECT + "WHERE c.id = :classId AND tca.isActive = true ORDER BY tca.id",
+           countQuery = "SELECT COUNT(tca) FROM TeacherClassAssignment tca WHERE tca.schoolClass.id = :classId AND tca.isActive = true")
+    Page<TeacherAssignmentView> findActiveViewsByClassId(@Param("classId") Long classId, Pageable pageable);
+    
+    @Query(ASSIGNMENT_VIEW_SELECT + "WHERE c.id = :classId AND tca.academicYear = :academicYear "
+         + "AND (tca.semester = :semester OR tca.semester = 'BOTH') AND tca.isActive = true")
+    List<TeacherAssignmentView> findActiveViewsForTerm(@Param("classId") Long classId,
+                                                       @Param("academicYear") int academicYear,
+                                                       @Param("semester") String semester);
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.studentapi.repository;
+
+import com.example.studentapi.dto.PromotionEntry;
+import com.example.studentapi.model.YearlyResult;
+import com.example.studentapi.model.YearlyResultId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface YearlyResultRepository extends JpaRepository<YearlyResult, YearlyResultId> {
+
+    // Row lock so concurrent writes to both semesters of a student serialize
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT yr FROM YearlyResult yr WHERE yr.id = :id")
+    Optional<YearlyResult> findForUpdate(@Param("id") YearlyResultId id);
+
+    // Seeds an empty row so findForUpdate has a row to lock even for a student's first score in a subject
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO yearly_results (class_name, year, student_id, subject, student_name, updated_at) "
+         + "VALUES (:className, :year, :studentId, :subject, :studentName, CURRENT_TIMESTAMP) "
+         + "ON DUPLICATE KEY UPDATE student_id = student_id", nativeQuery = true)
+    int insertIfAbsent(@Param("className") String className,
+                       @Param("year") int year,
+                       @Param("studentId") Long studentId,
+                       @Param("subject") String subject,
+                       @Param("studentName") String studentName);
+
+    // Highest yearly TBM first, students still missing a semester last (idx_yearly_results_subject)
+    @Query("SELECT yr FROM YearlyResult yr WHERE yr.id.className = :className AND yr.id.subject = :subject "
+         + "AND yr.id.year = :year ORDER BY CASE WHEN yr.yearlyTbm IS NULL THEN 1 ELSE 0 END, yr.yearlyTbm DESC")
+    List<YearlyResult> findForClassSubject(@Param("className") String className,
+                                           @Param("subject") String subject,
+                                           @Param("year") int year);
+
+    // Primary key prefix range
+    @Query("SELECT yr FROM YearlyResult yr WHERE yr.id.className = :className AND yr.id.year = :year")
+    List<YearlyResult> findForClass(@Param("className") String className, @Param("year") int year);
+
+    @Query("SELECT yr FROM YearlyResult yr WHERE yr.id.studentId = :studentId AND (:year IS NULL OR yr.id.year = :year) "
+         + "ORDER BY yr.id.year, yr.id.subject")
+    List<YearlyResult> findForStudent(@Param("studentId") Long studentId, @Param("year") Integer year);
+
+    // One entry per student of the class year, aggregated over the primary key range
+    @Query("SELECT new com.example.studentapi.dto.PromotionEntry(yr.id.studentId, MAX(yr.studentName), COUNT(yr), "
+         + "COUNT(yr.yearlyTbm), SUM(CASE WHEN yr.yearlyTbm < :threshold THEN 1 ELSE 0 END), "
+         + "MIN(yr.yearlyTbm), AVG(yr.yearlyTbm)) "
+         + "FROM YearlyResult yr WHERE yr.id.className = :className AND yr.id.year = :year "
+         + "GROUP BY yr.id.studentId")
+    List<PromotionEntry> findPromotionList(@Param("className") String className,
+                                           @Param("year") int year,
+                                           @Param("threshold") double threshold);
+}
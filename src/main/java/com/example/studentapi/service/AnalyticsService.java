@@ -0,0 +1,35 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.AnalyticsFilter;
+import com.example.studentapi.dto.AnalyticsGroup;
+import com.example.studentapi.dto.TbmDistribution;
+import com.example.studentapi.model.RollupDimension;
+
+import java.util.List;
+
+/**
+ * Ad-hoc analytics over the in-memory score column store.
+ * Methods throw IllegalStateException while the store is still loading.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Aggregate of all scores matching the filter
+     */
+    AnalyticsGroup summarize(AnalyticsFilter filter);
+
+    /**
+     * Exact TBM histogram and grade-band counts of the matching scores
+     */
+    TbmDistribution getDistribution(AnalyticsFilter filter);
+
+    /**
+     * One aggregate per year and semester, oldest first
+     */
+    List<AnalyticsGroup> getTrend(AnalyticsFilter filter);
+
+    /**
+     * One aggregate per value of a dimension, e.g. classes of a grade side by side
+     */
+    List<AnalyticsGroup> compare(AnalyticsFilter filter, RollupDimension dimension);
+}
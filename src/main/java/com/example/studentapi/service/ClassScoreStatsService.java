@@ -0,0 +1,44 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.TbmPercentiles;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.model.ClassScoreStats;
+
+import java.util.Optional;
+
+public interface ClassScoreStatsService {
+
+    /**
+     * Stored aggregates for a class subject, a single primary-key lookup
+     */
+    Optional<ClassScoreStats> find(String className, String subject, int year, String semester);
+
+    /**
+     * Applies a score change to the affected stats rows, in the caller's transaction
+     */
+    void onScoreChanged(ScoreChangedEvent event);
+
+    /**
+     * Recomputes every stats row from the scores table
+     * @return number of class subjects written
+     */
+    int rebuildAll();
+
+    /**
+     * TBM percentiles of one class
+     * @param subject subject, or null to merge all subjects of the class
+     */
+    TbmPercentiles getClassPercentiles(String className, String subject, int year, String semester);
+
+    /**
+     * TBM percentiles over the active classes of a grade level, merged from class histograms
+     * @param subject subject, or null to merge all subjects
+     */
+    TbmPercentiles getGradePercentiles(int gradeLevel, String subject, int year, String semester);
+
+    /**
+     * TBM percentiles over every class of the school, merged from class histograms
+     * @param subject subject, or null to merge all subjects
+     */
+    TbmPercentiles getSchoolPercentiles(String subject, int year, String semester);
+}
@@ -0,0 +1,43 @@
+package com.example.studentapi.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * On-disk cache of rendered score workbooks, keyed by (export type, scope, data version).
+ * The data version is a cheap fingerprint of the scope's scores, so a hit costs one small
+ * aggregate query and no rendering.
+ */
+public interface ExportCacheService {
+
+    /**
+     * Cached workbook for the current data version, rendered on a miss
+     * @param teacherId teacher whose scores are exported, or null for all scores
+     * @param progress optional render progress callback (sheets done, total sheets)
+     * @return the workbook file, or empty when there are no scores to export; it is pinned for the
+     *         download grace period, so the caller can serve it even if a newer version replaces it
+     */
+    Optional<Path> getScoresWorkbook(Long teacherId, BiConsumer<Integer, Integer> progress) throws IOException;
+
+    /**
+     * Keeps a cached file on disk for at least the given time, through version cleanup and eviction.
+     * Pins only ever extend; an expired pin lets the file go at the next eviction.
+     */
+    void pin(Path file, Duration duration);
+
+    /**
+     * Pins a file for the download grace period. Tomcat opens a sendfile body only after the
+     * servlet returns, so a file being served must outlive the request handler.
+     */
+    void pinForDownload(Path file);
+
+    /**
+     * Deletes superseded versions and entries older than the maximum age, then least recently
+     * used entries until the cache fits its size limit; pinned files are kept
+     * @return number of files deleted
+     */
+    int evict();
+}
@@ -0,0 +1,33 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.ExportJobStatus;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Renders score workbooks on a bounded background pool into the export cache, so long
+ * exports no longer run on (or depend on) the request thread.
+ */
+public interface ExportJobService {
+
+    /**
+     * Queues an export, or returns the job already queued or running for the same export
+     * @param teacherId teacher whose scores are exported, or null for the admin export of all scores
+     * @throws IllegalStateException when the export queue is full
+     */
+    ExportJobStatus submit(Long teacherId);
+
+    Optional<ExportJobStatus> getStatus(String jobId);
+
+    /**
+     * File of a completed job, empty if the job is unknown, unfinished or expired
+     */
+    Optional<Path> getFile(String jobId);
+
+    /**
+     * Forgets finished jobs once they are older than the retention period
+     * @return number of jobs removed
+     */
+    int purgeExpired();
+}
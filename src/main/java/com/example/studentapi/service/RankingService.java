@@ -0,0 +1,20 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.RankingEntry;
+
+import java.util.List;
+
+public interface RankingService {
+
+    /**
+     * Rank students of one class
+     * @param subject subject to rank by, or null to rank by mean TBM over all subjects
+     */
+    List<RankingEntry> rankClass(String className, int year, String semester, String subject);
+
+    /**
+     * Rank students across every active class of a grade level, with class ranks included
+     * @param subject subject to rank by, or null to rank by mean TBM over all subjects
+     */
+    List<RankingEntry> rankGrade(int gradeLevel, int year, String semester, String subject);
+}
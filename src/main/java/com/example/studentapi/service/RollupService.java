@@ -0,0 +1,30 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.RollupRow;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.model.RollupDimension;
+
+import java.util.List;
+import java.util.Map;
+
+public interface RollupService {
+
+    /**
+     * Slices the rollup: filters on some dimensions and groups by others.
+     * Drilling down adds a group-by dimension, rolling up removes one.
+     * @param filters dimension -> required value
+     * @param groupBy dimensions to group by, in output order; empty for a grand total
+     */
+    List<RollupRow> query(Map<RollupDimension, String> filters, List<RollupDimension> groupBy);
+
+    /**
+     * Applies a score change to the rollup rows, in the caller's transaction
+     */
+    void onScoreChanged(ScoreChangedEvent event);
+
+    /**
+     * Rebuilds the rollup from the scores table
+     * @return number of rollup rows written
+     */
+    int refreshAll();
+}
@@ -1,8 +1,14 @@
 package com.example.studentapi.service;
 
+import com.example.studentapi.dto.RosterEntryView;
+import com.example.studentapi.dto.SchoolClassView;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.dto.TeacherAssignmentView;
 import com.example.studentapi.model.SchoolClass;
 import com.example.studentapi.model.StudentClassAssignment;
 import com.example.studentapi.model.TeacherClassAssignment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import java.util.List;
 
 public interface SchoolClassService {
@@ -35,6 +41,13 @@ public interface SchoolClassService {
     List<SchoolClass> findAllActive();
     List<SchoolClass> findByAcademicYearAndSemester(int academicYear, String semester);
     
+    /**
+     * Active classes as lightweight projections (no audit fields or collections)
+     */
+    SchoolClassView findViewById(Long id);
+    List<SchoolClassView> findAllActiveViews();
+    List<SchoolClassView> findViewsByAcademicYearAndSemester(int academicYear, String semester);
+    
     TeacherClassAssignment assignTeacherToClass(Long teacherId, Long classId, String subject, 
                                                int academicYear, String semester, String role, 
                                                boolean isPrimary, String assignedBy);
@@ -42,8 +55,15 @@ public interface SchoolClassService {
     StudentClassAssignment assignStudentToClass(Long studentId, Long classId, int academicYear, 
                                                String semester, String studentNumber, String enrolledBy);
     
-    List<StudentClassAssignment> getStudentsInClass(Long classId, int academicYear, String semester);
-    List<TeacherClassAssignment> getTeachersInClass(Long classId, int academicYear, String semester);
+    List<RosterEntryView> getRosterForClass(Long classId, int academicYear, String semester);
+    List<TeacherAssignmentView> getTeachersInClass(Long classId, int academicYear, String semester);
+    
+    /**
+     * Paginated replacements for the former SchoolClass collections
+     */
+    Page<TeacherAssignmentView> getTeacherAssignmentsPage(Long classId, Pageable pageable);
+    Page<RosterEntryView> getStudentAssignmentsPage(Long classId, Pageable pageable);
+    Page<ScoreView> getScoresPage(Long classId, Pageable pageable);
     
     void removeTeacherAssignment(Long assignmentId, Long requestingTeacherId);
     void removeStudentAssignment(Long assignmentId, Long requestingTeacherId);
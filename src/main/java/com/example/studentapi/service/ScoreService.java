@@ -1,10 +1,18 @@
 package com.example.studentapi.service;
 
+import com.example.studentapi.dto.ClassScoreSummary;
+import com.example.studentapi.dto.GradebookRow;
+import com.example.studentapi.dto.ImportReport;
+import com.example.studentapi.dto.RegularScoreStats;
+import com.example.studentapi.dto.ScoreView;
 import com.example.studentapi.model.Score;
 import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 public interface ScoreService {
     
@@ -14,6 +22,11 @@ public interface ScoreService {
     Score save(Score score);
     Score update(String id, Score score);
     void delete(String id);
+
+    // Remove every score of a student or teacher before the row itself, so the foreign key
+    // cascade never deletes scores behind the score listeners' backs; returns the number deleted
+    int deleteByStudentId(Long studentId);
+    int deleteByTeacherId(Long teacherId);
     
     // Batch operations
     List<Score> saveAll(List<Score> scores);
@@ -21,9 +34,39 @@ public interface ScoreService {
     
     // Import/Export operations
     List<Score> importFromExcel(MultipartFile file) throws IOException;
+
+    /**
+     * Imports scores from UTF-8 CSV in the column order of {@link #writeScoresCsv}, header row optional.
+     * Valid rows are upserted in batches; rejected rows are listed in the report. Rows must belong to
+     * the importing teacher (a blank teacher ID means the importer) and to a class subject they are assigned.
+     */
+    ImportReport importFromCsv(Long teacherId, InputStream in) throws IOException;
+
+    /**
+     * Streams scores as UTF-8 CSV, one row per score with a header row
+     * @param teacherId teacher whose scores are exported, or null for all scores
+     * @return number of score rows written
+     */
+    long writeScoresCsv(Long teacherId, OutputStream out) throws IOException;
     void exportToExcel(HttpServletResponse response) throws IOException;
     void exportToExcelForTeacher(HttpServletResponse response, Long teacherId) throws IOException;
     
+    /**
+     * Renders the scores workbook to a stream (used by background export jobs)
+     * @param teacherId teacher whose scores are exported, or null for all scores
+     * @param progress optional callback receiving (sheets done, total sheets)
+     * @return false when there are no scores to export (nothing is written)
+     */
+    boolean writeScoresWorkbook(Long teacherId, OutputStream out, BiConsumer<Integer, Integer> progress) throws IOException;
+    
+    /**
+     * Streams a ZIP with one workbook per class (or per class subject), rendered in parallel
+     * and written as each one finishes
+     * @param teacherId teacher whose scores are exported, or null for all scores
+     * @return false when there are no scores to export (nothing is written)
+     */
+    boolean writeScoresZip(Long teacherId, boolean perSubject, OutputStream out) throws IOException;
+    
     // Query methods - Basic
     List<Score> findByStudentId(Long studentId);
     List<Score> findByTeacherId(Long teacherId);
@@ -43,6 +86,13 @@ public interface ScoreService {
     List<Score> findByStudentIdAndYearAndSemester(Long studentId, int year, String semester);
     List<Score> findByTeacherIdAndYearAndSemester(Long teacherId, int year, String semester);
     
+    // Read-side projections for list endpoints
+    List<ScoreView> findAllViews();
+    List<ScoreView> findViewsByStudentId(Long studentId);
+    ScoreView findViewById(String id);
+    List<ScoreView> findViewsByTeacherId(Long teacherId);
+    List<ScoreView> findViewsByClassNameAndYearAndSemester(String className, int year, String semester);
+    
     // Security methods
     boolean teacherHasAccessToScore(Long teacherId, String id);
     boolean teacherHasAccessToClass(Long teacherId, String className, String subject, Integer academicYear, String semester);
@@ -52,6 +102,16 @@ public interface ScoreService {
     double getAverageScoreForClass(String className, String subject, int year, String semester);
     long getStudentCountForClass(String className, String subject, int year, String semester);
     List<Score> getTopScoresForClass(String className, String subject, int year, String semester, int limit);
+    List<ScoreView> getTopScoreViewsForClass(String className, String subject, int year, String semester, int limit);
+    List<ScoreView> getTopScoresForGrade(int gradeLevel, String subject, int year, String semester, int limit);
+    ClassScoreSummary getClassSummary(String className, String subject, int year, String semester);
+    // One row per student with HK1, HK2 and the yearly TBM, sorted by name
+    List<GradebookRow> getGradebook(String className, String subject, int year);
+    RegularScoreStats getRegularScoreStatsForClass(String className, String subject, int year, String semester);
+    List<RegularScoreStats> getRegularScoreStatsBySubject(String className, int year, String semester);
+    
+    // Maintenance: fills ddgtx_count/ddgtx_sum for rows written before they existed, returns rows updated
+    int backfillDdgtxAggregates(int batchSize);
     
     // Validation methods
     boolean validateScoreData(Score score);
@@ -1,6 +1,11 @@
 package com.example.studentapi.service;
 
+import com.example.studentapi.dto.ImportReport;
 import com.example.studentapi.model.Student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface StudentService {
@@ -9,4 +14,13 @@ public interface StudentService {
     Student save(Student student);
     Student update(Long id, Student student);
     void delete(Long id);
-}
\ No newline at end of file
+
+    // Streams every student as UTF-8 CSV (ID, Name, Gender, Hometown, Birthday); returns the row count
+    long writeStudentsCsv(OutputStream out) throws IOException;
+
+    // Imports students from UTF-8 CSV in the export column order, header row optional
+    ImportReport importFromCsv(InputStream in) throws IOException;
+
+    // Imports students from the "Students" sheet of an .xlsx workbook in the same column order
+    ImportReport importFromExcel(InputStream in) throws IOException;
+}
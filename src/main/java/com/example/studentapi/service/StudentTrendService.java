@@ -0,0 +1,14 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.SubjectTrend;
+
+import java.util.List;
+
+public interface StudentTrendService {
+
+    /**
+     * TBM series of every subject of a student, ordered by subject then year and semester.
+     * Cached per student until one of the student's scores changes.
+     */
+    List<SubjectTrend> getTrends(Long studentId);
+}
@@ -0,0 +1,43 @@
+package com.example.studentapi.service;
+
+import com.example.studentapi.dto.PromotionEntry;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.model.YearlyResult;
+
+import java.util.List;
+
+public interface YearlyResultService {
+
+    /**
+     * Applies a score change to the affected yearly rows, in the caller's transaction
+     */
+    void onScoreChanged(ScoreChangedEvent event);
+
+    /**
+     * Recomputes every yearly row from the scores table
+     * @return number of rows written
+     */
+    int rebuildAll();
+
+    /**
+     * Yearly results of a class subject, highest yearly TBM first
+     */
+    List<YearlyResult> getClassSubjectResults(String className, String subject, int year);
+
+    /**
+     * Yearly results of every subject of a class, sorted by student name
+     */
+    List<YearlyResult> getClassResults(String className, int year);
+
+    /**
+     * Yearly results of a student
+     * @param year school year, or null for every year
+     */
+    List<YearlyResult> getStudentResults(Long studentId, Integer year);
+
+    /**
+     * Year-end promotion list of a class, sorted by student name
+     * @param threshold lowest yearly TBM a subject may have for promotion
+     */
+    List<PromotionEntry> getPromotionList(String className, int year, double threshold);
+}
@@ -0,0 +1,73 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.analytics.ScoreAccumulator;
+import com.example.studentapi.analytics.ScoreColumnStore;
+import com.example.studentapi.dto.AnalyticsFilter;
+import com.example.studentapi.dto.AnalyticsGroup;
+import com.example.studentapi.dto.TbmDistribution;
+import com.example.studentapi.model.GradeBand;
+import com.example.studentapi.model.RollupDimension;
+import com.example.studentapi.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Autowired
+    private ScoreColumnStore columnStore;
+
+    @Override
+    public AnalyticsGroup summarize(AnalyticsFilter filter) {
+        requireReady();
+        return columnStore.aggregate(filter, false).toGroup(null);
+    }
+
+    @Override
+    public TbmDistribution getDistribution(AnalyticsFilter filter) {
+        requireReady();
+        ScoreAccumulator acc = columnStore.aggregate(filter, true);
+        long[] bins = acc.getBins();
+
+        Map<String, Long> bands = new LinkedHashMap<>();
+        for (GradeBand band : GradeBand.values()) {
+            bands.put(band.getLabel(), 0L);
+        }
+        // Only graded scores are binned, so bin 0 stays empty
+        for (int tenths = 1; tenths < bins.length; tenths++) {
+            if (bins[tenths] > 0) {
+                bands.merge(GradeBand.ofTenths(tenths).getLabel(), bins[tenths], Long::sum);
+            }
+        }
+        return new TbmDistribution(acc.toGroup(null), bins, bands);
+    }
+
+    @Override
+    public List<AnalyticsGroup> getTrend(AnalyticsFilter filter) {
+        requireReady();
+        return toGroups(columnStore.aggregateByTerm(filter));
+    }
+
+    @Override
+    public List<AnalyticsGroup> compare(AnalyticsFilter filter, RollupDimension dimension) {
+        requireReady();
+        return toGroups(columnStore.aggregateBy(filter, dimension));
+    }
+
+    private void requireReady() {
+        if (!columnStore.isReady()) {
+            throw new IllegalStateException("Analytics data is still loading, try again shortly");
+        }
+    }
+
+    private static List<AnalyticsGroup> toGroups(Map<String, ScoreAccumulator> groups) {
+        List<AnalyticsGroup> result = new ArrayList<>(groups.size());
+        groups.forEach((key, acc) -> result.add(acc.toGroup(key)));
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.studentapi.service.impl;
 
+import com.example.studentapi.dto.TeacherAssignmentView;
 import com.example.studentapi.model.Score;
 import com.example.studentapi.model.TeacherClassAssignment;
 import com.example.studentapi.repository.ScoreRepository;
@@ -7,11 +8,12 @@ import com.example.studentapi.repository.TeacherClassAssignmentRepository;
 import com.example.studentapi.service.AuthorizationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class AuthorizationServiceImpl implements AuthorizationService {
 
     @Autowired
@@ -22,40 +24,28 @@ public class AuthorizationServiceImpl implements AuthorizationService {
 
     @Override
     public boolean canTeacherAccessClass(Long teacherId, String className, int academicYear, String semester) {
-        List<TeacherClassAssignment> assignments = assignmentRepository
-            .findByTeacherIdAndClassNameAndAcademicYearAndSemester(teacherId, className, academicYear, semester);
-        
-        return assignments.stream().anyMatch(assignment -> 
-            assignment.isActive() && 
-            (assignment.getSemester().equals(semester) || assignment.getSemester().equals("BOTH"))
-        );
+        return assignmentRepository.existsActiveAssignment(teacherId, className, academicYear, semester);
     }
 
     @Override
     public boolean canTeacherAccessClass(Long teacherId, Long classId) {
-        List<TeacherClassAssignment> assignments = assignmentRepository
-            .findByTeacherIdAndSchoolClassId(teacherId, classId);
-        
-        return assignments.stream().anyMatch(TeacherClassAssignment::isActive);
+        return assignmentRepository.existsByTeacherIdAndSchoolClassIdAndIsActive(teacherId, classId);
+    }
+
+    @Override
+    public boolean canTeacherAccessGrade(Long teacherId, int gradeLevel, String subject, int academicYear, String semester) {
+        return assignmentRepository.existsActiveAssignmentInGrade(teacherId, gradeLevel, subject, academicYear, semester);
     }
 
     @Override
     public boolean canTeacherAccessStudent(Long teacherId, Long studentId, int academicYear, String semester) {
-        // Get all classes that this teacher teaches
-        List<TeacherClassAssignment> teacherAssignments = assignmentRepository
-            .findByTeacherIdAndAcademicYearAndSemester(teacherId, academicYear, semester);
-        
-        // Check if any of the teacher's classes contain this student
-        return teacherAssignments.stream()
-            .filter(TeacherClassAssignment::isActive)
-            .anyMatch(assignment -> 
-                assignmentRepository.isStudentInTeacherClass(studentId, assignment.getClassEntity().getId(), academicYear, semester)
-            );
+        // Check in one query whether any of the teacher's classes contain this student
+        return assignmentRepository.isStudentInAnyTeacherClass(teacherId, studentId, academicYear, semester);
     }
 
     @Override
     public boolean canTeacherModifyScore(Long teacherId, String scoreId) {
-        Score score = scoreRepository.findById(scoreId).orElse(null);
+        Score score = scoreRepository.findByScoreId(scoreId).orElse(null);
         if (score == null) {
             return false;
         }
@@ -66,14 +56,7 @@ public class AuthorizationServiceImpl implements AuthorizationService {
 
     @Override
     public List<String> getTeacherAccessibleClasses(Long teacherId, int academicYear, String semester) {
-        List<TeacherClassAssignment> assignments = assignmentRepository
-            .findByTeacherIdAndAcademicYearAndSemester(teacherId, academicYear, semester);
-        
-        return assignments.stream()
-            .filter(TeacherClassAssignment::isActive)
-            .map(assignment -> assignment.getClassEntity().getClassName())
-            .distinct()
-            .collect(Collectors.toList());
+        return assignmentRepository.findAccessibleClassNames(teacherId, academicYear, semester);
     }
 
     @Override
@@ -81,16 +64,14 @@ public class AuthorizationServiceImpl implements AuthorizationService {
         return assignmentRepository.findByTeacherIdAndIsActiveTrue(teacherId);
     }
 
+    @Override
+    public List<TeacherAssignmentView> getTeacherClassAssignmentViews(Long teacherId) {
+        return assignmentRepository.findActiveViewsByTeacherId(teacherId);
+    }
+
     @Override
     public boolean isTeacherAuthorizedForSubject(Long teacherId, String className, String subject, 
                                                 int academicYear, String semester) {
-        List<TeacherClassAssignment> assignments = assignmentRepository
-            .findByTeacherIdAndClassNameAndSubjectAndAcademicYearAndSemester(
-                teacherId, className, subject, academicYear, semester);
-        
-        return assignments.stream().anyMatch(assignment -> 
-            assignment.isActive() && 
-            (assignment.getSemester().equals(semester) || assignment.getSemester().equals("BOTH"))
-        );
+        return assignmentRepository.teacherHasAccessToClass(teacherId, className, subject, academicYear, semester);
     }
 }
\ No newline at end of file
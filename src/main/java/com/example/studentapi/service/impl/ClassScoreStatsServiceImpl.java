@@ -0,0 +1,187 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.dto.TbmPercentiles;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.ClassScoreStats;
+import com.example.studentapi.model.ClassScoreStatsId;
+import com.example.studentapi.model.TbmHistogram;
+import com.example.studentapi.repository.ClassRepository;
+import com.example.studentapi.repository.ClassScoreStatsRepository;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.service.ClassScoreStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class ClassScoreStatsServiceImpl implements ClassScoreStatsService {
+
+    @Autowired
+    private ClassScoreStatsRepository statsRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ClassScoreStats> find(String className, String subject, int year, String semester) {
+        return statsRepository.findById(new ClassScoreStatsId(className, subject, year, semester));
+    }
+
+    // Synchronous listener: runs inside the score write's transaction
+    @Override
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        ScoreSnapshot before = event.getBefore();
+        ScoreSnapshot after = event.getAfter();
+
+        if (before != null && isComplete(before)) {
+            ClassScoreStatsId key = keyOf(before);
+            statsRepository.findForUpdate(key).ifPresent(stats -> {
+                if (stats.remove(before.getTbmTenths(), before.isGraded())) {
+                    recomputeRange(stats);
+                }
+                if (stats.getScoreCount() == 0) {
+                    statsRepository.delete(stats);
+                } else {
+                    statsRepository.save(stats);
+                }
+            });
+        }
+
+        if (after != null && isComplete(after)) {
+            ClassScoreStatsId key = keyOf(after);
+            statsRepository.insertIfAbsent(key.getClassName(), key.getSubject(), key.getYear(), key.getSemester(),
+                new TbmHistogram().toBytes());
+            ClassScoreStats stats = statsRepository.findForUpdate(key).orElseGet(() -> new ClassScoreStats(key));
+            stats.add(after.getTbmTenths(), after.isGraded());
+            statsRepository.save(stats);
+        }
+    }
+
+    @Override
+    public int rebuildAll() {
+        statsRepository.deleteAllInBatch();
+
+        Map<ClassScoreStatsId, ClassScoreStats> rebuilt = new LinkedHashMap<>();
+        for (Object[] row : scoreRepository.aggregateClassScoreStats()) {
+            ClassScoreStatsId key = new ClassScoreStatsId((String) row[0], (String) row[1], (Integer) row[2], (String) row[3]);
+            ClassScoreStats stats = new ClassScoreStats(key);
+            stats.setScoreCount(toLong(row[4]));
+            stats.setGradedCount(toLong(row[5]));
+            stats.setTbmSumTenths(Math.round(toDouble(row[6]) * 10));
+            stats.setTbmSumSqTenths(Math.round(toDouble(row[7]) * 100));
+            stats.setTbmMinTenths(toTenths(row[8]));
+            stats.setTbmMaxTenths(toTenths(row[9]));
+            stats.setPassCount(toLong(row[10]));
+            rebuilt.put(key, stats);
+        }
+
+        Map<ClassScoreStatsId, TbmHistogram> histograms = new LinkedHashMap<>();
+        for (Object[] row : scoreRepository.countTbmByClassScoreStats()) {
+            ClassScoreStatsId key = new ClassScoreStatsId((String) row[0], (String) row[1], (Integer) row[2], (String) row[3]);
+            histograms.computeIfAbsent(key, k -> new TbmHistogram()).add(toTenths(row[4]), toLong(row[5]));
+        }
+        histograms.forEach((key, histogram) -> {
+            ClassScoreStats stats = rebuilt.get(key);
+            if (stats != null) {
+                stats.setTbmHistogram(histogram.toBytes());
+            }
+        });
+
+        statsRepository.saveAll(rebuilt.values());
+        return rebuilt.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TbmPercentiles getClassPercentiles(String className, String subject, int year, String semester) {
+        List<ClassScoreStats> rows = statsRepository.findForClasses(Collections.singletonList(className), subject, year, semester);
+        return toPercentiles("class", className, subject, year, semester, rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TbmPercentiles getGradePercentiles(int gradeLevel, String subject, int year, String semester) {
+        List<String> classNames = classRepository.findClassNamesByGradeLevel(gradeLevel, year);
+        List<ClassScoreStats> rows = classNames.isEmpty()
+            ? Collections.emptyList()
+            : statsRepository.findForClasses(classNames, subject, year, semester);
+        return toPercentiles("grade", String.valueOf(gradeLevel), subject, year, semester, rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TbmPercentiles getSchoolPercentiles(String subject, int year, String semester) {
+        List<ClassScoreStats> rows = statsRepository.findForTerm(subject, year, semester);
+        return toPercentiles("school", null, subject, year, semester, rows);
+    }
+
+    private static TbmPercentiles toPercentiles(String level, String scope, String subject, int year,
+                                                String semester, List<ClassScoreStats> rows) {
+        TbmHistogram merged = new TbmHistogram();
+        for (ClassScoreStats stats : rows) {
+            merged.merge(stats.getHistogram());
+        }
+        int min = merged.minTenths();
+        int max = merged.maxTenths();
+        return new TbmPercentiles(level, scope, subject, year, semester, rows.size(), merged.getTotal(),
+            min >= 0 ? min / 10.0 : null,
+            round2(merged.quantile(0.10)),
+            round2(merged.quantile(0.25)),
+            round2(merged.quantile(0.50)),
+            round2(merged.quantile(0.75)),
+            round2(merged.quantile(0.90)),
+            max >= 0 ? max / 10.0 : null,
+            merged.getCounts());
+    }
+
+    // Removing the current min or max needs the next extreme from the (already flushed) scores
+    private void recomputeRange(ClassScoreStats stats) {
+        ClassScoreStatsId key = stats.getId();
+        List<Object[]> range = scoreRepository.findTbmRangeForClass(
+            key.getClassName(), key.getSubject(), key.getYear(), key.getSemester());
+        Object[] row = range.isEmpty() ? new Object[2] : range.get(0);
+        stats.setTbmMinTenths(toTenths(row[0]));
+        stats.setTbmMaxTenths(toTenths(row[1]));
+    }
+
+    private static boolean isComplete(ScoreSnapshot snapshot) {
+        return snapshot.getClassName() != null && snapshot.getSubject() != null
+            && snapshot.getYear() != null && snapshot.getSemester() != null;
+    }
+
+    private static ClassScoreStatsId keyOf(ScoreSnapshot snapshot) {
+        return new ClassScoreStatsId(snapshot.getClassName(), snapshot.getSubject(),
+            snapshot.getYear(), snapshot.getSemester());
+    }
+
+    private static Double round2(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static Integer toTenths(Object value) {
+        return value != null ? (int) Math.round(((Number) value).doubleValue() * 10) : null;
+    }
+}
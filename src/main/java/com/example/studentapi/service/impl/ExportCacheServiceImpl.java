@@ -0,0 +1,279 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.service.ExportCacheService;
+import com.example.studentapi.service.ScoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+@Service
+public class ExportCacheServiceImpl implements ExportCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportCacheServiceImpl.class);
+
+    private static final String SCORES_EXPORT = "scores";
+    private static final String ALL_SCOPE = "all";
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ScoreService scoreService;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${export.cache.max-size-mb:512}")
+    private long maxSizeMb;
+
+    @Value("${export.cache.max-age-hours:24}")
+    private long maxAgeHours;
+
+    @Value("${export.cache.download-pin-seconds:300}")
+    private long downloadPinSeconds;
+
+    // Bumped after every committed score change of a scope. Part of the data version so that
+    // writes within the same updated_at tick, which leave count and max(updated_at) unchanged, still miss
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Generations restart with the application, so versions carry the start time as well
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Path, Long> lastAccess = new ConcurrentHashMap<>();
+    // Time (epoch millis) until which a file must stay: finished jobs and downloads in flight
+    private final Map<Path, Long> pins = new ConcurrentHashMap<>();
+    // Older versions kept only because they were pinned; evict() removes them once unpinned
+    private final Set<Path> superseded = ConcurrentHashMap.newKeySet();
+
+    private Path cacheDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        cacheDir = Paths.get(uploadDir, "export-cache");
+        Files.createDirectories(cacheDir);
+        // Entries of a previous run carry another boot ID and can never be hit again
+        for (Path file : listFiles()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public Optional<Path> getScoresWorkbook(Long teacherId, BiConsumer<Integer, Integer> progress) throws IOException {
+        String scope = teacherId != null ? "teacher-" + teacherId : ALL_SCOPE;
+        List<Object[]> rows = teacherId != null
+            ? scoreRepository.getExportFingerprintForTeacher(teacherId)
+            : scoreRepository.getExportFingerprint();
+        Object[] fingerprint = rows.isEmpty() ? new Object[2] : rows.get(0);
+        long count = fingerprint[0] != null ? ((Number) fingerprint[0]).longValue() : 0L;
+        if (count == 0) {
+            return Optional.empty();
+        }
+
+        String prefix = SCORES_EXPORT + "_" + scope + "_";
+        Path file = cacheDir.resolve(prefix + version(scope, count, (LocalDateTime) fingerprint[1]) + ".xlsx");
+        // Pin before the check, so a concurrent cleanup either sees the pin or has already deleted the file
+        pinForDownload(file);
+        if (Files.exists(file)) {
+            lastAccess.put(file, System.currentTimeMillis());
+            return Optional.of(file);
+        }
+
+        // Unique temp name: concurrent misses for one key both render, the last move wins
+        Path partial = cacheDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            boolean written;
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                written = scoreService.writeScoresWorkbook(teacherId, out, progress);
+            }
+            if (!written) {
+                return Optional.empty();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        lastAccess.put(file, System.currentTimeMillis());
+
+        // Older versions of the same scope can never be hit again, but may still be downloading
+        long now = System.currentTimeMillis();
+        for (Path other : listFiles()) {
+            String name = other.getFileName().toString();
+            if (name.startsWith(prefix) && !other.equals(file)) {
+                if (isPinned(other, now)) {
+                    superseded.add(other);
+                } else {
+                    delete(other);
+                }
+            }
+        }
+        evict();
+        return Optional.of(file);
+    }
+
+    // After commit, so a concurrent export cannot cache the pre-change data under the new version
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreChanged(ScoreChangedEvent event) {
+        bump(ALL_SCOPE);
+        bumpTeacher(event.getBefore());
+        bumpTeacher(event.getAfter());
+    }
+
+    @Override
+    public void pin(Path file, Duration duration) {
+        pins.merge(file, System.currentTimeMillis() + duration.toMillis(), Math::max);
+    }
+
+    @Override
+    public void pinForDownload(Path file) {
+        pin(file, Duration.ofSeconds(downloadPinSeconds));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${export.cache.evict-interval-ms:600000}")
+    public synchronized int evict() {
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = maxAgeHours * 3600_000L;
+        long maxBytes = maxSizeMb * 1024 * 1024;
+        int deleted = 0;
+        pins.values().removeIf(until -> until <= now);
+
+        List<Path> entries = new ArrayList<>();
+        long totalBytes = 0;
+        for (Path file : listFiles()) {
+            if (isPinned(file, now)) {
+                continue;
+            }
+            if (superseded.contains(file)) {
+                if (delete(file)) deleted++;
+                continue;
+            }
+            try {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (now - modified > maxAgeMillis) {
+                    if (delete(file)) deleted++;
+                } else if (!file.getFileName().toString().endsWith(".part")) {
+                    entries.add(file);
+                    totalBytes += Files.size(file);
+                }
+            } catch (IOException e) {
+                // Deleted concurrently
+            }
+        }
+
+        if (totalBytes > maxBytes) {
+            entries.sort((a, b) -> Long.compare(accessTime(a), accessTime(b)));
+            for (Path file : entries) {
+                if (totalBytes <= maxBytes) {
+                    break;
+                }
+                try {
+                    long size = Files.size(file);
+                    if (delete(file)) {
+                        totalBytes -= size;
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    // Deleted concurrently
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // A scope's own fingerprint and generation only: writes by other teachers bump the admin
+    // scope and their own, never this teacher's
+    private String version(String scope, long count, LocalDateTime maxUpdatedAt) {
+        long updated = maxUpdatedAt != null ? maxUpdatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        return Long.toString(count, 36) + "-" + Long.toString(updated, 36) + "-" + bootId + "-"
+            + generation(scope);
+    }
+
+    private long generation(String scope) {
+        AtomicLong counter = generations.get(scope);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    private void bump(String scope) {
+        generations.computeIfAbsent(scope, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void bumpTeacher(ScoreSnapshot snapshot) {
+        if (snapshot != null && snapshot.getTeacherId() != null) {
+            bump("teacher-" + snapshot.getTeacherId());
+        }
+    }
+
+    private boolean isPinned(Path file, long now) {
+        Long until = pins.get(file);
+        if (until == null) {
+            return false;
+        }
+        if (until > now) {
+            return true;
+        }
+        pins.remove(file, until);
+        return false;
+    }
+
+    private long accessTime(Path file) {
+        Long accessed = lastAccess.get(file);
+        if (accessed != null) {
+            return accessed;
+        }
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private boolean delete(Path file) {
+        lastAccess.remove(file);
+        superseded.remove(file);
+        pins.remove(file);
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached export {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private List<Path> listFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list export cache: {}", e.getMessage());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.dto.ExportJobStatus;
+import com.example.studentapi.dto.ExportJobStatus.State;
+import com.example.studentapi.service.ExportCacheService;
+import com.example.studentapi.service.ExportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobServiceImpl.class);
+
+    private static final String ADMIN_KEY = "admin";
+
+    @Autowired
+    private ExportCacheService exportCacheService;
+
+    @Value("${export.jobs.threads:2}")
+    private int threads;
+
+    @Value("${export.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${export.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Queued or running job per export (teacher ID or admin), for deduplication
+    private final Map<String, Job> activeJobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "export-job-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized ExportJobStatus submit(Long teacherId) {
+        String key = teacherId != null ? String.valueOf(teacherId) : ADMIN_KEY;
+        Job active = activeJobs.get(key);
+        if (active != null && active.state.isActive()) {
+            return active.toStatus();
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), teacherId, key);
+        jobs.put(job.id, job);
+        activeJobs.put(key, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            activeJobs.remove(key, job);
+            throw new IllegalStateException("Too many exports are queued, try again later");
+        }
+        log.debug("Queued export job {} ({})", job.id, key);
+        return job.toStatus();
+    }
+
+    @Override
+    public Optional<ExportJobStatus> getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? Optional.of(job.toStatus()) : Optional.empty();
+    }
+
+    // The file belongs to the export cache, which keeps it while the job is retained
+    @Override
+    public Optional<Path> getFile(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || job.state != State.COMPLETED || job.file == null
+                || job.finishedAt.isBefore(LocalDateTime.now().minusMinutes(retentionMinutes))) {
+            return Optional.empty();
+        }
+        exportCacheService.pinForDownload(job.file);
+        return Files.exists(job.file) ? Optional.of(job.file) : Optional.empty();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${export.jobs.purge-interval-ms:600000}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int removed = 0;
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(cutoff)) {
+                jobs.remove(job.id);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void run(Job job) {
+        job.state = State.RUNNING;
+        try {
+            // A cache hit completes at once; a miss renders into the export cache
+            Optional<Path> file = exportCacheService.getScoresWorkbook(job.teacherId,
+                (done, total) -> job.progress = total > 0 ? done * 100 / total : 100);
+            if (file.isPresent()) {
+                // Kept for the job's download window, which ends retentionMinutes after it finishes
+                exportCacheService.pin(file.get(), Duration.ofMinutes(retentionMinutes + 1));
+                job.file = file.get();
+                job.fileSize = Files.size(job.file);
+                job.state = State.COMPLETED;
+            } else {
+                job.state = State.EMPTY;
+            }
+            job.progress = 100;
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.state = State.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            activeJobs.remove(job.key, job);
+        }
+    }
+
+    private final class Job {
+        final String id;
+        final Long teacherId;
+        final String key;
+        final String fileName;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile State state = State.QUEUED;
+        volatile int progress;
+        volatile Path file;
+        volatile Long fileSize;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, Long teacherId, String key) {
+            this.id = id;
+            this.teacherId = teacherId;
+            this.key = key;
+            this.fileName = teacherId != null ? "scores_teacher_" + teacherId + ".xlsx" : "all_scores.xlsx";
+        }
+
+        ExportJobStatus toStatus() {
+            State current = state;
+            return new ExportJobStatus(id, teacherId != null ? "teacher" : "admin", teacherId, current, progress,
+                fileName, fileSize, error, createdAt, finishedAt,
+                current == State.COMPLETED ? "/api/exports/" + id + "/download" : null);
+        }
+    }
+}
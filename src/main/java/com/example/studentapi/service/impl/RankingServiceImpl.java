@@ -0,0 +1,94 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.config.CacheConfig;
+import com.example.studentapi.dto.RankingEntry;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.service.RankingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class RankingServiceImpl implements RankingService {
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CLASS_RANKINGS,
+               key = "#className + ':' + #year + ':' + #semester + ':' + #subject")
+    public List<RankingEntry> rankClass(String className, int year, String semester, String subject) {
+        List<Object[]> rows = subject != null
+                ? scoreRepository.rankClassBySubject(className, subject, year, semester)
+                : scoreRepository.rankClassOverall(className, year, semester);
+        return toEntries(rows, subject);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GRADE_RANKINGS,
+               key = "#gradeLevel + ':' + #year + ':' + #semester + ':' + #subject")
+    public List<RankingEntry> rankGrade(int gradeLevel, int year, String semester, String subject) {
+        List<Object[]> rows = subject != null
+                ? scoreRepository.rankGradeBySubject(gradeLevel, subject, year, semester)
+                : scoreRepository.rankGradeOverall(gradeLevel, year, semester);
+        return toEntries(rows, subject);
+    }
+
+    // Evict after commit so a concurrent read cannot re-cache the pre-change ranking
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictOnScoreChange(ScoreChangedEvent event) {
+        Cache classRankings = cacheManager.getCache(CacheConfig.CLASS_RANKINGS);
+        if (classRankings != null) {
+            evictClass(classRankings, event.getBefore());
+            evictClass(classRankings, event.getAfter());
+        }
+        // The grade of a class is not on the score; grade rankings are few, so drop them all
+        Cache gradeRankings = cacheManager.getCache(CacheConfig.GRADE_RANKINGS);
+        if (gradeRankings != null) {
+            gradeRankings.clear();
+        }
+    }
+
+    private static void evictClass(Cache cache, ScoreSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        String prefix = snapshot.getClassName() + ":" + snapshot.getYear() + ":" + snapshot.getSemester() + ":";
+        cache.evict(prefix + snapshot.getSubject());
+        cache.evict(prefix + null);
+    }
+
+    private static List<RankingEntry> toEntries(List<Object[]> rows, String subject) {
+        List<RankingEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new RankingEntry(
+                toLong(row[0]),
+                (String) row[1],
+                (String) row[2],
+                subject,
+                row[3] != null ? Math.round(((Number) row[3]).doubleValue() * 100.0) / 100.0 : null,
+                row[4] != null ? ((Number) row[4]).intValue() : null,
+                toLong(row[5]),
+                toLong(row[6])
+            ));
+        }
+        return entries;
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.dto.RollupRow;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.RollupDimension;
+import com.example.studentapi.model.ScoreRollup;
+import com.example.studentapi.model.ScoreRollupId;
+import com.example.studentapi.repository.ScoreRollupRepository;
+import com.example.studentapi.service.RollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+public class RollupServiceImpl implements RollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupServiceImpl.class);
+
+    @Autowired
+    private ScoreRollupRepository rollupRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupRow> query(Map<RollupDimension, String> filters, List<RollupDimension> groupBy) {
+        // Only enum-defined paths and bind parameters go into the JPQL
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (RollupDimension dimension : groupBy) {
+            jpql.append(dimension.getPath()).append(", ");
+        }
+        jpql.append("SUM(r.scoreCount), SUM(r.gradedCount), SUM(r.tbmSumTenths), SUM(r.tbmSumSqTenths), ")
+            .append("SUM(r.passCount), SUM(r.ddgtxCount), SUM(r.ddgtxSum) FROM ScoreRollup r");
+
+        String separator = " WHERE ";
+        for (RollupDimension dimension : filters.keySet()) {
+            jpql.append(separator).append(dimension.getPath()).append(" = :").append(dimension.getParamName());
+            separator = " AND ";
+        }
+        if (!groupBy.isEmpty()) {
+            String columns = String.join(", ", groupBy.stream().map(RollupDimension::getPath).toArray(String[]::new));
+            jpql.append(" GROUP BY ").append(columns).append(" ORDER BY ").append(columns);
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        filters.forEach((dimension, value) -> query.setParameter(dimension.getParamName(), dimension.parseValue(value)));
+
+        List<RollupRow> rows = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            Map<String, Object> dimensions = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                dimensions.put(groupBy.get(i).getParamName(), row[i]);
+            }
+            int m = groupBy.size();
+            long scoreCount = toLong(row[m]);
+            if (scoreCount == 0) {
+                continue;
+            }
+            rows.add(toRow(dimensions, scoreCount, toLong(row[m + 1]), toLong(row[m + 2]),
+                toLong(row[m + 3]), toLong(row[m + 4]), toLong(row[m + 5]), toLong(row[m + 6])));
+        }
+        return rows;
+    }
+
+    // Synchronous listener: runs inside the score write's transaction
+    @Override
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        apply(event.getBefore(), -1);
+        apply(event.getAfter(), 1);
+    }
+
+    @Override
+    @Scheduled(cron = "${rollup.refresh.cron:0 30 2 * * *}")
+    public int refreshAll() {
+        rollupRepository.deleteAllRollups();
+        int rows = rollupRepository.insertRollupsFromScores();
+        log.debug("Refreshed score rollups: {} rows", rows);
+        return rows;
+    }
+
+    private void apply(ScoreSnapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.getYear() == null || snapshot.getSemester() == null
+                || snapshot.getClassName() == null || snapshot.getSubject() == null) {
+            return;
+        }
+        List<Integer> gradeLevels = rollupRepository.findGradeLevel(snapshot.getClassName(), snapshot.getYear());
+        ScoreRollupId key = new ScoreRollupId(
+            snapshot.getYear(),
+            snapshot.getSemester(),
+            gradeLevels.isEmpty() || gradeLevels.get(0) == null ? 0 : gradeLevels.get(0),
+            snapshot.getClassName(),
+            snapshot.getSubject(),
+            snapshot.getTeacherId() != null ? snapshot.getTeacherId() : 0L
+        );
+
+        if (sign > 0) {
+            rollupRepository.insertIfAbsent(key.getYear(), key.getSemester(), key.getGradeLevel(),
+                key.getClassName(), key.getSubject(), key.getTeacherId());
+        }
+        ScoreRollup rollup = rollupRepository.findForUpdate(key).orElse(null);
+        if (rollup == null) {
+            if (sign < 0) {
+                return;
+            }
+            rollup = new ScoreRollup(key);
+        }
+        rollup.apply(sign, snapshot.getTbmTenths(), snapshot.isGraded(), snapshot.getDdgtxCount(), snapshot.getDdgtxSum());
+        if (rollup.getScoreCount() <= 0) {
+            rollupRepository.delete(rollup);
+        } else {
+            rollupRepository.save(rollup);
+        }
+    }
+
+    private static RollupRow toRow(Map<String, Object> dimensions, long scoreCount, long gradedCount,
+                                   long tbmSumTenths, long tbmSumSqTenths, long passCount,
+                                   long ddgtxCount, long ddgtxSum) {
+        Double average = null;
+        Double standardDeviation = null;
+        if (gradedCount > 0) {
+            double meanTenths = (double) tbmSumTenths / gradedCount;
+            double variance = Math.max((double) tbmSumSqTenths / gradedCount - meanTenths * meanTenths, 0.0);
+            average = round2(meanTenths / 10.0);
+            standardDeviation = round2(Math.sqrt(variance) / 10.0);
+        }
+        return new RollupRow(dimensions, scoreCount, gradedCount, average, standardDeviation,
+            gradedCount > 0 ? round2((double) passCount / gradedCount) : 0.0,
+            ddgtxCount > 0 ? round2((double) ddgtxSum / ddgtxCount) : null);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -1,24 +1,34 @@
 package com.example.studentapi.service.impl;
 
+import com.example.studentapi.dto.RosterEntryView;
+import com.example.studentapi.dto.SchoolClassView;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.dto.TeacherAssignmentView;
 import com.example.studentapi.model.SchoolClass;
 import com.example.studentapi.model.Student;
 import com.example.studentapi.model.StudentClassAssignment;
 import com.example.studentapi.model.Teacher;
 import com.example.studentapi.model.TeacherClassAssignment;
 import com.example.studentapi.repository.ClassRepository;
+import com.example.studentapi.repository.ScoreRepository;
 import com.example.studentapi.repository.StudentClassAssignmentRepository;
 import com.example.studentapi.repository.StudentRepository;
 import com.example.studentapi.repository.TeacherClassAssignmentRepository;
 import com.example.studentapi.repository.TeacherRepository;
 import com.example.studentapi.service.SchoolClassService;
+import com.example.studentapi.util.VietnameseNameOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 public class SchoolClassServiceImpl implements SchoolClassService {
 
     @Autowired
@@ -36,6 +46,9 @@ public class SchoolClassServiceImpl implements SchoolClassService {
     @Autowired
     private StudentClassAssignmentRepository studentAssignmentRepository;
 
+    @Autowired
+    private ScoreRepository scoreRepository;
+
     @Override
     public SchoolClass createClass(SchoolClass classEntity) {
         // Check if class name already exists
@@ -67,6 +80,21 @@ public class SchoolClassServiceImpl implements SchoolClassService {
         return classRepository.findByAcademicYearAndSemester(academicYear, semester);
     }
 
+    @Override
+    public SchoolClassView findViewById(Long id) {
+        return classRepository.findViewById(id).orElse(null);
+    }
+
+    @Override
+    public List<SchoolClassView> findAllActiveViews() {
+        return classRepository.findActiveViews();
+    }
+
+    @Override
+    public List<SchoolClassView> findViewsByAcademicYearAndSemester(int academicYear, String semester) {
+        return classRepository.findViewsByAcademicYearAndSemester(academicYear, semester);
+    }
+
     @Override
     public TeacherClassAssignment assignTeacherToClass(Long teacherId, Long classId, String subject, 
                                                       int academicYear, String semester, String role, 
@@ -78,17 +106,9 @@ public class SchoolClassServiceImpl implements SchoolClassService {
         SchoolClass classEntity = classRepository.findById(classId)
             .orElseThrow(() -> new IllegalArgumentException("Class not found with id: " + classId));
 
-        // Check if assignment already exists - using the corrected method
-        List<TeacherClassAssignment> existingAssignments = teacherAssignmentRepository
-            .findByTeacherIdAndSubjectAndAcademicYearAndSemester(
-                teacherId, subject, academicYear, semester);
-        
-        // Filter by class name since we can't easily join in the repository method
-        existingAssignments = existingAssignments.stream()
-            .filter(assignment -> assignment.getClassEntity().getClassName().equals(classEntity.getClassName()))
-            .collect(Collectors.toList());
-        
-        if (!existingAssignments.isEmpty()) {
+        // Check if assignment already exists (class name is matched in the query join)
+        if (teacherAssignmentRepository.teacherHasAccessToClass(
+                teacherId, classEntity.getClassName(), subject, academicYear, semester)) {
             throw new IllegalArgumentException("Teacher is already assigned to this class for this subject");
         }
 
@@ -138,8 +158,28 @@ public class SchoolClassServiceImpl implements SchoolClassService {
     }
 
     @Override
-    public List<StudentClassAssignment> getStudentsInClass(Long classId, int academicYear, String semester) {
-        return studentAssignmentRepository.findStudentsInClass(classId, academicYear, semester);
+    public List<RosterEntryView> getRosterForClass(Long classId, int academicYear, String semester) {
+        return VietnameseNameOrder.sort(
+            studentAssignmentRepository.findRosterForClass(classId, academicYear, semester),
+            RosterEntryView::getStudentName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TeacherAssignmentView> getTeacherAssignmentsPage(Long classId, Pageable pageable) {
+        return teacherAssignmentRepository.findActiveViewsByClassId(classId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<RosterEntryView> getStudentAssignmentsPage(Long classId, Pageable pageable) {
+        return studentAssignmentRepository.findRosterPageForClass(classId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ScoreView> getScoresPage(Long classId, Pageable pageable) {
+        return scoreRepository.findViewsByClassId(classId, pageable);
     }
 
     @Override
@@ -158,13 +198,9 @@ public class SchoolClassServiceImpl implements SchoolClassService {
     }
 
     @Override
-    public List<TeacherClassAssignment> getTeachersInClass(Long classId, int academicYear, String semester) {
-        return teacherAssignmentRepository.findActiveAssignmentsBySchoolClassId(classId)
-            .stream()
-            .filter(assignment -> assignment.getAcademicYear() == academicYear)
-            .filter(assignment -> assignment.getSemester().equals(semester) || assignment.getSemester().equals("BOTH"))
-            .filter(TeacherClassAssignment::isActive)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<TeacherAssignmentView> getTeachersInClass(Long classId, int academicYear, String semester) {
+        return teacherAssignmentRepository.findActiveViewsForTerm(classId, academicYear, semester);
     }
 
     @Override
@@ -173,7 +209,7 @@ public class SchoolClassServiceImpl implements SchoolClassService {
             .orElseThrow(() -> new IllegalArgumentException("Assignment not found"));
         
         // Only allow removal by the same teacher or admin logic can be added here
-        if (!assignment.getTeacher().getId().equals(requestingTeacherId)) {
+        if (!assignment.getTeacherId().equals(requestingTeacherId)) {
             throw new IllegalArgumentException("Not authorized to remove this assignment");
         }
         
@@ -1,30 +1,91 @@
 package com.example.studentapi.service.impl;
 
+import com.example.studentapi.dto.ClassScoreSummary;
+import com.example.studentapi.dto.GradebookRow;
+import com.example.studentapi.dto.ImportReport;
+import com.example.studentapi.dto.RegularScoreStats;
+import com.example.studentapi.dto.ScoreView;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.ClassScoreStats;
+import com.example.studentapi.model.GradeBand;
+import com.example.studentapi.model.RegularScores;
 import com.example.studentapi.model.SchoolClass;
 import com.example.studentapi.model.Score;
+import com.example.studentapi.model.TbmHistogram;
 import com.example.studentapi.repository.ClassRepository;
 import com.example.studentapi.repository.ScoreRepository;
 import com.example.studentapi.repository.TeacherClassAssignmentRepository;
+import com.example.studentapi.service.ClassScoreStatsService;
 import com.example.studentapi.service.ScoreService;
 import com.example.studentapi.service.SchoolClassService;
+import com.example.studentapi.util.ColumnWidthTracker;
+import com.example.studentapi.util.CsvReader;
+import com.example.studentapi.util.CsvWriter;
+import com.example.studentapi.util.ExcelStyleRegistry;
+import com.example.studentapi.util.ExcelStyleRegistry.Style;
+import com.example.studentapi.util.VietnameseNameOrder;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @Transactional
 public class ScoreServiceImpl implements ScoreService {
 
+    private static final Logger log = LoggerFactory.getLogger(ScoreServiceImpl.class);
+
+    private static final String[] EXPORT_COLUMNS = {
+            "TT", "Họ và tên học sinh",
+            "ĐĐGtx", "ĐĐGgk", "ĐĐGck", "TBm HK1", "Nhận xét",
+            "ĐĐGtx", "ĐĐGgk", "ĐĐGck", "TBm HK2", "Nhận xét", "TBm CN"
+    };
+    private static final int EXPORT_ROW_WINDOW = 100;
+    private static final String[] CSV_COLUMNS = {
+            "StudentId", "TeacherId", "ClassName", "Subject", "Semester", "Year",
+            "DDGtx", "DDGgk", "DDGck", "StudentName", "TeacherName", "Comment", "TBm"
+    };
+    private static final int CSV_PAGE_SIZE = 5000;
+    private static final int CSV_IMPORT_BATCH_SIZE = 1000;
+
     @Autowired
     private ScoreRepository scoreRepository;
 
@@ -37,11 +98,36 @@ public class ScoreServiceImpl implements ScoreService {
     @Autowired
     private ClassRepository classRepository;
 
+    @Autowired
+    private ClassScoreStatsService classScoreStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${export.zip.parallelism:0}")
+    private int zipParallelism;
+
+    // Bounded pool for per-class workbook rendering; 0 means one worker per core
+    private ForkJoinPool exportPool;
+
+    @PostConstruct
+    public void initExportPool() {
+        exportPool = new ForkJoinPool(zipParallelism > 0 ? zipParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdownExportPool() {
+        exportPool.shutdownNow();
+    }
+
     // ========== BASIC CRUD OPERATIONS ==========
     
     @Override
     public Score findById(String id) {
-        return scoreRepository.findById(id).orElse(null);
+        return scoreRepository.findByScoreId(id).orElse(null);
     }
 
     @Override
@@ -73,17 +159,27 @@ public class ScoreServiceImpl implements ScoreService {
             score.setId(scoreId);
         }
 
+        // Saving an existing legacy ID overwrites that row, as before the surrogate key
+        Score existing = scoreRepository.findByScoreId(score.getId()).orElse(null);
+        ScoreSnapshot before = ScoreSnapshot.of(existing);
+        if (existing != null) {
+            score.setPk(existing.getPk());
+        }
+
         // Auto-calculate TBM if not provided
         if (score.getTbm() == null || score.getTbm() == 0.0) {
             score.calculateTbm();
         }
         
-        return scoreRepository.save(score);
+        Score saved = scoreRepository.save(score);
+        publishChange(before, saved);
+        return saved;
     }
 
     @Override
     public Score update(String id, Score score) {
-        if (!scoreRepository.existsById(id)) {
+        Score existing = scoreRepository.findByScoreId(id).orElse(null);
+        if (existing == null) {
             return null;
         }
         
@@ -100,12 +196,37 @@ public class ScoreServiceImpl implements ScoreService {
         score.calculateTbm();
         
         score.setId(id);
-        return scoreRepository.save(score);
+        score.setPk(existing.getPk());
+        ScoreSnapshot before = ScoreSnapshot.of(existing);
+        Score saved = scoreRepository.save(score);
+        publishChange(before, saved);
+        return saved;
     }
 
     @Override
     public void delete(String id) {
-        scoreRepository.deleteById(id);
+        scoreRepository.findByScoreId(id).ifPresent(existing -> {
+            ScoreSnapshot before = ScoreSnapshot.of(existing);
+            scoreRepository.delete(existing);
+            publishChange(before, null);
+        });
+    }
+
+    @Override
+    public int deleteByStudentId(Long studentId) {
+        return deleteAll(scoreRepository.findByStudentId(studentId));
+    }
+
+    @Override
+    public int deleteByTeacherId(Long teacherId) {
+        return deleteAll(scoreRepository.findByTeacherId(teacherId));
+    }
+
+    private int deleteAll(List<Score> scores) {
+        List<ScoreSnapshot> before = scores.stream().map(ScoreSnapshot::of).collect(Collectors.toList());
+        scoreRepository.deleteAll(scores);
+        before.forEach(snapshot -> publishChange(snapshot, null));
+        return scores.size();
     }
 
     // ========== BATCH OPERATIONS ==========
@@ -150,15 +271,33 @@ public class ScoreServiceImpl implements ScoreService {
             }
         }
         
-        return scoreRepository.saveAll(validatedScores);
+        validatedScores = lastById(validatedScores);
+        Map<String, ScoreSnapshot> beforeById = new HashMap<>();
+        Map<String, Score> existingById = findExistingByScoreIds(validatedScores);
+        for (Score score : validatedScores) {
+            Score existing = existingById.get(score.getId());
+            if (existing != null) {
+                score.setPk(existing.getPk());
+                beforeById.put(score.getId(), ScoreSnapshot.of(existing));
+            }
+        }
+        
+        List<Score> saved = scoreRepository.saveAll(validatedScores);
+        saved.forEach(score -> publishChange(beforeById.get(score.getId()), score));
+        return saved;
     }
 
     @Override
     public List<Score> updateAll(List<Score> scores) {
         List<Score> updatedScores = new ArrayList<>();
+        Map<String, ScoreSnapshot> beforeById = new HashMap<>();
+        Map<String, Score> existingById = findExistingByScoreIds(scores);
         
         for (Score score : scores) {
-            if (score.getId() != null && scoreRepository.existsById(score.getId())) {
+            Score existing = score.getId() != null ? existingById.get(score.getId()) : null;
+            if (existing != null) {
+                score.setPk(existing.getPk());
+                beforeById.put(score.getId(), ScoreSnapshot.of(existing));
                 validateScoreData(score);
 
                 if (score.getClassId() == null && score.getClassName() != null) {
@@ -173,7 +312,41 @@ public class ScoreServiceImpl implements ScoreService {
             }
         }
         
-        return scoreRepository.saveAll(updatedScores);
+        List<Score> saved = scoreRepository.saveAll(lastById(updatedScores));
+        saved.forEach(score -> publishChange(beforeById.get(score.getId()), score));
+        return saved;
+    }
+
+    // A repeated legacy ID in one batch is one row: the last occurrence wins, as it did when id was the @Id
+    private static List<Score> lastById(List<Score> scores) {
+        Map<String, Score> latest = new LinkedHashMap<>();
+        for (Score score : scores) {
+            latest.remove(score.getId());
+            latest.put(score.getId(), score);
+        }
+        return latest.size() == scores.size() ? scores : new ArrayList<>(latest.values());
+    }
+
+    // One round trip to load the existing rows for a batch of legacy string IDs
+    private Map<String, Score> findExistingByScoreIds(List<Score> scores) {
+        List<String> ids = scores.stream()
+                .map(Score::getId)
+                .filter(id -> id != null && !id.trim().isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Score> existing = new HashMap<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        for (Score score : scoreRepository.findAllByScoreIds(ids)) {
+            existing.put(score.getId(), score);
+        }
+        return existing;
+    }
+
+    // Derived data (class statistics, ...) is maintained synchronously from this event
+    private void publishChange(ScoreSnapshot before, Score after) {
+        eventPublisher.publishEvent(new ScoreChangedEvent(before, ScoreSnapshot.of(after)));
     }
 
     // ========== IMPORT/EXPORT OPERATIONS ==========
@@ -284,42 +457,287 @@ public class ScoreServiceImpl implements ScoreService {
         return scores;
     }
 
+    // Each batch commits on its own, so a large file never builds one huge transaction
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReport importFromCsv(Long teacherId, InputStream in) throws IOException {
+        ImportReport report = new ImportReport();
+        // Assignment check per class, subject, year and semester; a file usually covers a handful
+        Map<String, Boolean> access = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Score> batch = new ArrayList<>(CSV_IMPORT_BATCH_SIZE);
+        List<Long> batchLines = new ArrayList<>(CSV_IMPORT_BATCH_SIZE);
+
+        try (CsvReader reader = CsvReader.utf8(in)) {
+            boolean first = true;
+            while (reader.next()) {
+                // Header row (any first row whose student ID is not a number)
+                if (first) {
+                    first = false;
+                    if (!isInteger(reader, 0)) {
+                        continue;
+                    }
+                }
+                report.rowRead();
+                long line = reader.getLineNumber();
+                try {
+                    Score score = csvToScore(reader);
+                    if (score.getTeacherId() == null) {
+                        score.setTeacherId(teacherId);
+                    } else if (!score.getTeacherId().equals(teacherId)) {
+                        report.reject(line, "Teachers can only import their own scores");
+                        continue;
+                    }
+                    String accessKey = score.getClassName() + '|' + score.getSubject() + '|' + score.getYear() + '|' + score.getSemester();
+                    if (!access.computeIfAbsent(accessKey, key -> teacherHasAccessToClass(teacherId,
+                            score.getClassName(), score.getSubject(), score.getYear(), score.getSemester()))) {
+                        report.reject(line, "Teacher does not have access to class " + score.getClassName());
+                        continue;
+                    }
+                    List<String> errors = validateScoreInternal(score);
+                    if (!errors.isEmpty()) {
+                        report.reject(line, String.join(", ", errors));
+                        continue;
+                    }
+                    batch.add(score);
+                    batchLines.add(line);
+                } catch (IllegalArgumentException e) {
+                    report.reject(line, e.getMessage());
+                    continue;
+                }
+                if (batch.size() == CSV_IMPORT_BATCH_SIZE) {
+                    saveCsvBatch(transaction, batch, batchLines, report);
+                }
+            }
+        }
+        saveCsvBatch(transaction, batch, batchLines, report);
+        return report;
+    }
+
+    private void saveCsvBatch(TransactionTemplate transaction, List<Score> batch, List<Long> lines, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Score> saved = transaction.execute(status -> saveAll(batch));
+            report.imported(saved != null ? saved.size() : 0);
+        } catch (RuntimeException e) {
+            log.warn("CSV import batch failed: {}", e.getMessage());
+            for (Long line : lines) {
+                report.reject(line, "Batch could not be saved: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        lines.clear();
+    }
+
+    // Same columns as the Excel import; the TBm column is ignored and recalculated
+    private Score csvToScore(CsvReader reader) {
+        Score score = new Score();
+        score.setStudentId(reader.getLong(0));
+        score.setTeacherId(reader.isBlank(1) ? null : reader.getLong(1));
+        score.setClassName(reader.getTrimmed(2));
+        score.setSubject(reader.getTrimmed(3));
+        score.setSemester(reader.getTrimmed(4));
+        score.setYear(reader.getInt(5));
+
+        String ddgtx = reader.getTrimmed(6);
+        if (ddgtx != null && RegularScores.parse(ddgtx).isEmpty() && !ddgtx.replace(",", "").trim().isEmpty()) {
+            throw new IllegalArgumentException("Regular scores must be comma-separated numbers");
+        }
+        score.setDdgtx(ddgtx != null ? ddgtx : "");
+        if (!reader.isBlank(7)) {
+            score.setDdggk(reader.getInt(7));
+        }
+        if (!reader.isBlank(8)) {
+            score.setDdgck(reader.getInt(8));
+        }
+        score.setStudentName(reader.getTrimmed(9));
+        score.setTeacherName(reader.getTrimmed(10));
+        score.setComment(reader.get(11));
+
+        score.calculateTbm();
+        return score;
+    }
+
+    private static boolean isInteger(CsvReader reader, int index) {
+        try {
+            reader.getLong(index);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Keyset pages, each its own short read, so no connection is held while the client downloads
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long writeScoresCsv(Long teacherId, OutputStream out) throws IOException {
+        CsvWriter writer = CsvWriter.utf8(out);
+        writer.record(CSV_COLUMNS);
+
+        long rows = 0;
+        long afterPk = 0;
+        while (true) {
+            List<Object[]> page = teacherId != null
+                ? scoreRepository.findCsvRowsForTeacher(teacherId, afterPk, PageRequest.of(0, CSV_PAGE_SIZE))
+                : scoreRepository.findCsvRows(afterPk, PageRequest.of(0, CSV_PAGE_SIZE));
+            for (Object[] row : page) {
+                for (int i = 1; i < row.length; i++) {
+                    Object value = row[i];
+                    if (value instanceof Number) {
+                        writer.field((Number) value);
+                    } else {
+                        writer.field((String) value);
+                    }
+                }
+                writer.endRecord();
+            }
+            rows += page.size();
+            writer.flush();
+            if (page.size() < CSV_PAGE_SIZE) {
+                break;
+            }
+            afterPk = ((Number) page.get(page.size() - 1)[0]).longValue();
+        }
+        return rows;
+    }
+
     @Override
     public void exportToExcel(HttpServletResponse response) throws IOException {
-        List<Score> scores = scoreRepository.findAll();
-        exportScoresToExcel(scores, response, "all_scores.xlsx");
+        List<GradebookRow> rows = scoreRepository.findGradebookAll();
+        exportScoresToExcel(rows, response, "all_scores.xlsx");
     }
 
     @Override
     public void exportToExcelForTeacher(HttpServletResponse response, Long teacherId) throws IOException {
-        List<Score> scores = scoreRepository.findByTeacherId(teacherId);
-        exportScoresToExcel(scores, response, "scores_teacher_" + teacherId + ".xlsx");
+        List<GradebookRow> rows = scoreRepository.findGradebookForTeacher(teacherId);
+        exportScoresToExcel(rows, response, "scores_teacher_" + teacherId + ".xlsx");
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public boolean writeScoresWorkbook(Long teacherId, OutputStream out, BiConsumer<Integer, Integer> progress) throws IOException {
+        List<GradebookRow> rows = loadGradebook(teacherId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        writeWorkbook(rows, out, progress);
+        return true;
+    }
+    
+    // Loads outside a transaction so no connection is held while the archive streams to the client
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean writeScoresZip(Long teacherId, boolean perSubject, OutputStream out) throws IOException {
+        List<GradebookRow> rows = loadGradebook(teacherId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        Map<String, List<GradebookRow>> parts = rows.stream().collect(Collectors.groupingBy(
+            row -> perSubject ? row.getClassName() + "_" + row.getSubject() : row.getClassName(),
+            TreeMap::new, Collectors.toList()));
+
+        // Workbooks render concurrently on the bounded pool and are written in completion order
+        CompletionService<ZipPart> completion = new ExecutorCompletionService<>(exportPool);
+        List<Future<ZipPart>> futures = new ArrayList<>(parts.size());
+        for (Map.Entry<String, List<GradebookRow>> part : parts.entrySet()) {
+            String entryName = part.getKey().replace('/', '-').replace('\\', '-') + ".xlsx";
+            List<GradebookRow> partRows = part.getValue();
+            futures.add(completion.submit(() -> new ZipPart(entryName, renderWorkbook(partRows))));
+        }
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                ZipPart part = completion.take().get();
+                // xlsx is already deflated; storing avoids compressing it twice
+                CRC32 crc = new CRC32();
+                crc.update(part.bytes);
+                ZipEntry entry = new ZipEntry(part.name);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(part.bytes.length);
+                entry.setCompressedSize(part.bytes.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(part.bytes);
+                zip.closeEntry();
+                zip.flush();
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render workbook: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Client gone or a part failed: stop rendering the rest
+            for (Future<ZipPart> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return true;
+    }
+
+    private List<GradebookRow> loadGradebook(Long teacherId) {
+        return teacherId != null ? scoreRepository.findGradebookForTeacher(teacherId) : scoreRepository.findGradebookAll();
+    }
+
+    private byte[] renderWorkbook(List<GradebookRow> rows) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        writeWorkbook(rows, buffer, null);
+        return buffer.toByteArray();
+    }
+
+    private static final class ZipPart {
+        final String name;
+        final byte[] bytes;
+
+        ZipPart(String name, byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
     }
     
-    private void exportScoresToExcel(List<Score> scores, HttpServletResponse response, String filename) throws IOException {
-        if (scores.isEmpty()) {
+    private void exportScoresToExcel(List<GradebookRow> rows, HttpServletResponse response, String filename) throws IOException {
+        if (rows.isEmpty()) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             response.getWriter().write("No score data available to export");
             return;
         }
 
-        Workbook workbook = new XSSFWorkbook();
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+        writeWorkbook(rows, response.getOutputStream(), null);
+    }
+
+    // Renders one sheet per class subject from gradebook rows; progress (if given) receives (sheets done, total sheets)
+    private void writeWorkbook(List<GradebookRow> rows, OutputStream out, BiConsumer<Integer, Integer> progress) throws IOException {
+        // Rows are written top to bottom and never read back, so they can be flushed to disk as we go
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
         try {
-            // Group scores by className and subject
-            Map<String, Map<String, List<Score>>> classSubjectMap = scores.stream()
+            ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+
+            // Group rows by className and subject
+            Map<String, Map<String, List<GradebookRow>>> classSubjectMap = rows.stream()
                     .collect(Collectors.groupingBy(
-                        Score::getClassName,
-                        Collectors.groupingBy(Score::getSubject)
+                        GradebookRow::getClassName, TreeMap::new,
+                        Collectors.groupingBy(GradebookRow::getSubject, TreeMap::new, Collectors.toList())
                     ));
 
-            for (Map.Entry<String, Map<String, List<Score>>> classEntry : classSubjectMap.entrySet()) {
+            int totalSheets = classSubjectMap.values().stream().mapToInt(Map::size).sum();
+            int sheetsDone = 0;
+
+            for (Map.Entry<String, Map<String, List<GradebookRow>>> classEntry : classSubjectMap.entrySet()) {
                 String className = classEntry.getKey();
                 
-                for (Map.Entry<String, List<Score>> subjectEntry : classEntry.getValue().entrySet()) {
+                for (Map.Entry<String, List<GradebookRow>> subjectEntry : classEntry.getValue().entrySet()) {
                     String subject = subjectEntry.getKey();
-                    List<Score> classSubjectScores = subjectEntry.getValue();
+                    List<GradebookRow> classSubjectRows = subjectEntry.getValue();
                     
-                    if (classSubjectScores.isEmpty()) continue;
+                    if (classSubjectRows.isEmpty()) continue;
 
                     // Create sheet name with class and subject
                     String sheetName = className + "_" + subject;
@@ -328,36 +746,41 @@ public class ScoreServiceImpl implements ScoreService {
                     }
                     
                     Sheet sheet = workbook.createSheet(sheetName);
-                    String teacherName = classSubjectScores.get(0).getTeacherName() != null ? 
-                        classSubjectScores.get(0).getTeacherName() : "Teacher";
-
-                    // Group by studentId
-                    Map<Long, List<Score>> studentMap = classSubjectScores.stream()
-                            .collect(Collectors.groupingBy(Score::getStudentId));
-
-                    List<Long> sortedStudentIds = new ArrayList<>(studentMap.keySet());
-                    sortedStudentIds.sort((id1, id2) -> {
-                        String name1 = studentMap.get(id1).get(0).getStudentName();
-                        String name2 = studentMap.get(id2).get(0).getStudentName();
-                        return name1 != null && name2 != null ? name1.compareTo(name2) : 0;
-                    });
-
-                    createHeader(sheet, className, teacherName, sortedStudentIds.size(), subject);
-                    createColumnHeaders(sheet);
-                    fillStudentData(sheet, studentMap, sortedStudentIds);
-                    autoSizeColumns(sheet);
+                    String teacherName = classSubjectRows.get(0).getTeacherName() != null ? 
+                        classSubjectRows.get(0).getTeacherName() : "Teacher";
+
+                    List<GradebookRow> sortedRows = VietnameseNameOrder.sort(classSubjectRows, GradebookRow::getStudentName);
+
+                    ColumnWidthTracker widths = new ColumnWidthTracker(EXPORT_COLUMNS.length);
+                    widths.setMaxWidth(1, 8000);
+                    createHeader(sheet, widths, className, teacherName, sortedRows.size(), subject);
+                    createColumnHeaders(sheet, widths, styles);
+                    fillStudentData(sheet, widths, styles, sortedRows);
+                    widths.apply(sheet, 2000);
+
+                    if (progress != null) {
+                        progress.accept(++sheetsDone, totalSheets);
+                    }
                 }
             }
 
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setHeader("Content-Disposition", "attachment; filename=" + filename);
-            workbook.write(response.getOutputStream());
+            workbook.write(out);
 
         } finally {
+            workbook.dispose();
             workbook.close();
         }
     }
 
+    // ========== GRADEBOOK ==========
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GradebookRow> getGradebook(String className, String subject, int year) {
+        return VietnameseNameOrder.sort(scoreRepository.findGradebook(className, subject, year),
+            GradebookRow::getStudentName);
+    }
+
     // ========== QUERY METHODS - BASIC ==========
     
     @Override
@@ -429,6 +852,38 @@ public class ScoreServiceImpl implements ScoreService {
         return scoreRepository.findByTeacherIdAndYearAndSemester(teacherId, year, semester);
     }
 
+    // ========== READ-SIDE PROJECTIONS ==========
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> findAllViews() {
+        return scoreRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> findViewsByStudentId(Long studentId) {
+        return scoreRepository.findViewsByStudentId(studentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScoreView findViewById(String id) {
+        return scoreRepository.findViewByScoreId(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> findViewsByTeacherId(Long teacherId) {
+        return scoreRepository.findViewsByTeacherId(teacherId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> findViewsByClassNameAndYearAndSemester(String className, int year, String semester) {
+        return scoreRepository.findViewsByClassNameAndYearAndSemester(className, year, semester);
+    }
+
     // ========== SECURITY METHODS ==========
     
     @Override
@@ -457,10 +912,13 @@ public class ScoreServiceImpl implements ScoreService {
     
     @Override
     public double getAverageScoreForClass(String className, String subject, int year, String semester) {
-        Double average = scoreRepository.getAverageScoreForClass(className, subject, year, semester);
+        Double average = classScoreStatsService.find(className, subject, year, semester)
+                .map(ClassScoreStats::getAverage)
+                .orElse(null);
         return average != null ? average : 0.0;
     }
 
+    // Distinct students, not score rows: a student scored by two teachers has two rows
     @Override
     public long getStudentCountForClass(String className, String subject, int year, String semester) {
         Long count = scoreRepository.getStudentCountForClass(className, subject, year, semester);
@@ -469,8 +927,104 @@ public class ScoreServiceImpl implements ScoreService {
 
     @Override
     public List<Score> getTopScoresForClass(String className, String subject, int year, String semester, int limit) {
-        List<Score> allScores = scoreRepository.findTopScoresForClass(className, subject, year, semester);
-        return allScores.stream().limit(limit).collect(Collectors.toList());
+        return scoreRepository.findTopScoresForClass(className, subject, year, semester, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> getTopScoreViewsForClass(String className, String subject, int year, String semester, int limit) {
+        return scoreRepository.findTopViewsForClass(className, subject, year, semester, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScoreView> getTopScoresForGrade(int gradeLevel, String subject, int year, String semester, int limit) {
+        // Each class contributes at most `limit` rows; a min-heap of size `limit` keeps the overall best
+        PriorityQueue<ScoreView> heap = new PriorityQueue<>(limit + 1, TOP_SCORE_ORDER.reversed());
+        for (String className : classRepository.findClassNamesByGradeLevel(gradeLevel, year)) {
+            for (ScoreView view : getTopScoreViewsForClass(className, subject, year, semester, limit)) {
+                heap.offer(view);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+        List<ScoreView> top = new ArrayList<>(heap);
+        top.sort(TOP_SCORE_ORDER);
+        return top;
+    }
+
+    // Highest TBM first, ties by student name
+    private static final Comparator<ScoreView> TOP_SCORE_ORDER = Comparator
+            .comparing(ScoreView::getTbm, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ScoreView::getStudentName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClassScoreSummary getClassSummary(String className, String subject, int year, String semester) {
+        // Everything comes from the class_score_stats row and its TBM histogram; score rows are only read for a row without one
+        ClassScoreStats stats = classScoreStatsService.find(className, subject, year, semester).orElse(null);
+        TbmHistogram histogram = stats != null ? stats.getHistogram() : new TbmHistogram();
+        // A row without a histogram (until the startup rebuild) falls back to counting the scores
+        if (stats != null && !stats.hasHistogram() && stats.getGradedCount() > 0) {
+            histogram = new TbmHistogram();
+            for (Object[] row : scoreRepository.countTbmForClass(className, subject, year, semester)) {
+                histogram.add((int) Math.round(((Number) row[0]).doubleValue() * 10), ((Number) row[1]).longValue());
+            }
+        }
+        long[] bins = histogram.getCounts();
+
+        Map<String, Long> gradeBands = new LinkedHashMap<>();
+        for (GradeBand band : GradeBand.values()) {
+            gradeBands.put(band.getLabel(), 0L);
+        }
+        for (int tenths = 1; tenths < bins.length; tenths++) {
+            if (bins[tenths] > 0) {
+                gradeBands.merge(GradeBand.ofTenths(tenths).getLabel(), bins[tenths], Long::sum);
+            }
+        }
+
+        if (stats == null || stats.getGradedCount() == 0) {
+            return new ClassScoreSummary(className, subject, year, semester, stats != null ? stats.getScoreCount() : 0, 0,
+                    null, null, null, null, null, 0.0, gradeBands);
+        }
+
+        Double median = histogram.quantile(0.5);
+        return new ClassScoreSummary(className, subject, year, semester, stats.getScoreCount(), stats.getGradedCount(),
+                round2(stats.getAverage()),
+                round2(stats.getStandardDeviation()),
+                stats.getMin(),
+                stats.getMax(),
+                median != null ? round2(median) : null,
+                round2(stats.getPassRate()),
+                gradeBands);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RegularScoreStats getRegularScoreStatsForClass(String className, String subject, int year, String semester) {
+        return scoreRepository.getRegularScoreStatsForClass(className, subject, year, semester)
+                .orElse(new RegularScoreStats(subject, 0L, 0L, 0L, 0.0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RegularScoreStats> getRegularScoreStatsBySubject(String className, int year, String semester) {
+        return scoreRepository.getRegularScoreStatsBySubject(className, year, semester);
+    }
+
+    @Override
+    public int backfillDdgtxAggregates(int batchSize) {
+        List<Object[]> rows = scoreRepository.findMissingDdgtxAggregates(PageRequest.of(0, batchSize));
+        for (Object[] row : rows) {
+            RegularScores packed = RegularScores.parse((String) row[1]);
+            scoreRepository.updateDdgtxAggregates((Long) row[0], packed.count(), (int) packed.sum());
+        }
+        return rows.size();
     }
 
     // ========== VALIDATION METHODS ==========
@@ -535,11 +1089,10 @@ public class ScoreServiceImpl implements ScoreService {
         }
         
         // Regular scores validation
-        List<Integer> ddgtx = score.getDdgtxList();
-        if (ddgtx != null) {
-            for (int i = 0; i < ddgtx.size(); i++) {
-                Integer regularScore = ddgtx.get(i);
-                if (regularScore < 0 || regularScore > 10) {
+        RegularScores ddgtx = score.getRegularScores();
+        if (!ddgtx.allInRange()) {
+            for (int i = 0; i < ddgtx.count(); i++) {
+                if (!ddgtx.isInRange(i)) {
                     errors.add("Regular score " + (i + 1) + " must be between 0 and 10");
                 }
             }
@@ -572,189 +1125,63 @@ public class ScoreServiceImpl implements ScoreService {
 
     // ========== HELPER METHODS FOR EXCEL EXPORT ==========
     
-    private void createHeader(Sheet sheet, String className, String teacherName, int studentCount, String subject) {
+    private void createHeader(Sheet sheet, ColumnWidthTracker widths, String className, String teacherName,
+                              int studentCount, String subject) {
         // Row 0: Main header
         Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Lớp:");
-        headerRow.createCell(1).setCellValue(className);
-        headerRow.createCell(4).setCellValue("Môn:");
-        headerRow.createCell(5).setCellValue(subject != null ? subject : "Tin học");
-        headerRow.createCell(13).setCellValue("GV: " + teacherName);
+        textCell(headerRow, 0, "Lớp:", null, widths);
+        textCell(headerRow, 1, className, null, widths);
+        textCell(headerRow, 4, "Môn:", null, widths);
+        textCell(headerRow, 5, subject != null ? subject : "Tin học", null, widths);
+        textCell(headerRow, 13, "GV: " + teacherName, null, widths);
 
         // Row 1: Student count
         Row countRow = sheet.createRow(1);
-        countRow.createCell(0).setCellValue("SS:");
-        countRow.createCell(1).setCellValue(studentCount);
-        countRow.createCell(2).setCellValue("HỌC KỲ I");
-        countRow.createCell(7).setCellValue("HỌC KỲ II");
-    }
-    
-    // Overloaded method for backward compatibility
-    private void createHeader(Sheet sheet, String className, String teacherName, int studentCount) {
-        createHeader(sheet, className, teacherName, studentCount, "Tin học");
+        textCell(countRow, 0, "SS:", null, widths);
+        numberCell(countRow, 1, studentCount, null, widths);
+        textCell(countRow, 2, "HỌC KỲ I", null, widths);
+        textCell(countRow, 7, "HỌC KỲ II", null, widths);
     }
 
-    private void createColumnHeaders(Sheet sheet) {
+    private void createColumnHeaders(Sheet sheet, ColumnWidthTracker widths, ExcelStyleRegistry styles) {
         // Row 2: Column headers
         Row headerRow = sheet.createRow(2);
+        CellStyle headerStyle = styles.get(Style.HEADER);
 
-        String[] headers = {
-                "TT", "Họ và tên học sinh",
-                "ĐĐGtx", "ĐĐGgk", "ĐĐGck", "TBm HK1", "Nhận xét",
-                "ĐĐGtx", "ĐĐGgk", "ĐĐGck", "TBm HK2", "Nhận xét", "TBm CN"
-        };
-
-        for (int i = 0; i < headers.length; i++) {
+        for (int i = 0; i < EXPORT_COLUMNS.length; i++) {
             Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-
-            // Style header cells
-            CellStyle headerStyle = sheet.getWorkbook().createCellStyle();
-            Font headerFont = sheet.getWorkbook().createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
+            cell.setCellValue(EXPORT_COLUMNS[i]);
             cell.setCellStyle(headerStyle);
+            widths.trackBold(i, EXPORT_COLUMNS[i]);
         }
     }
 
-    private void fillStudentData(Sheet sheet, Map<Long, List<Score>> studentMap, List<Long> sortedStudentIds) {
+    private void fillStudentData(Sheet sheet, ColumnWidthTracker widths, ExcelStyleRegistry styles,
+                                 List<GradebookRow> sortedRows) {
         int rowIndex = 3; // Start from row 3 (after headers)
         int studentNumber = 1;
 
-        CellStyle dataStyle = sheet.getWorkbook().createCellStyle();
-        dataStyle.setBorderBottom(BorderStyle.THIN);
-        dataStyle.setBorderTop(BorderStyle.THIN);
-        dataStyle.setBorderLeft(BorderStyle.THIN);
-        dataStyle.setBorderRight(BorderStyle.THIN);
-        dataStyle.setAlignment(HorizontalAlignment.CENTER);
-
-        CellStyle nameStyle = sheet.getWorkbook().createCellStyle();
-        nameStyle.setBorderBottom(BorderStyle.THIN);
-        nameStyle.setBorderTop(BorderStyle.THIN);
-        nameStyle.setBorderLeft(BorderStyle.THIN);
-        nameStyle.setBorderRight(BorderStyle.THIN);
-        nameStyle.setAlignment(HorizontalAlignment.LEFT);
-
-        for (Long studentId : sortedStudentIds) {
-            List<Score> studentScores = studentMap.get(studentId);
-
-            // Get scores for semester 1 and 2
-            Score hk1Score = studentScores.stream()
-                    .filter(s -> "1".equals(s.getSemester()))
-                    .findFirst().orElse(null);
-            Score hk2Score = studentScores.stream()
-                    .filter(s -> "2".equals(s.getSemester()))
-                    .findFirst().orElse(null);
+        CellStyle dataStyle = styles.get(Style.DATA);
+        CellStyle nameStyle = styles.get(Style.NAME);
 
+        for (GradebookRow gradebookRow : sortedRows) {
             Row row = sheet.createRow(rowIndex++);
             int colIndex = 0;
 
             // TT (student number)
-            Cell ttCell = row.createCell(colIndex++);
-            ttCell.setCellValue(studentNumber++);
-            ttCell.setCellStyle(dataStyle);
+            numberCell(row, colIndex++, studentNumber++, dataStyle, widths);
 
             // Student name
-            String studentName = hk1Score != null ? hk1Score.getStudentName()
-                    : (hk2Score != null ? hk2Score.getStudentName() : "");
-            Cell nameCell = row.createCell(colIndex++);
-            nameCell.setCellValue(studentName != null ? studentName : "");
-            nameCell.setCellStyle(nameStyle);
-
-            // HK1 scores
-            if (hk1Score != null) {
-                // ĐĐGtx - average of regular scores
-                double avgTx1 = hk1Score.getDdgtxList() != null && !hk1Score.getDdgtxList().isEmpty()
-                        ? hk1Score.getDdgtxList().stream().mapToInt(Integer::intValue).average().orElse(0.0)
-                        : 0.0;
-                Cell txCell1 = row.createCell(colIndex++);
-                txCell1.setCellValue(Math.round(avgTx1 * 10.0) / 10.0);
-                txCell1.setCellStyle(dataStyle);
-
-                // ĐĐGgk (mid-term)
-                Cell gkCell1 = row.createCell(colIndex++);
-                gkCell1.setCellValue(hk1Score.getDdggk() != null ? hk1Score.getDdggk() : 0);
-                gkCell1.setCellStyle(dataStyle);
-
-                // ĐĐGck (final)
-                Cell ckCell1 = row.createCell(colIndex++);
-                ckCell1.setCellValue(hk1Score.getDdgck() != null ? hk1Score.getDdgck() : 0);
-                ckCell1.setCellStyle(dataStyle);
-
-                // TBm HK1
-                Cell tbmCell1 = row.createCell(colIndex++);
-                tbmCell1.setCellValue(hk1Score.getTbm() != null ? hk1Score.getTbm() : 0.0);
-                tbmCell1.setCellStyle(dataStyle);
-
-                // Comment HK1
-                Cell commentCell1 = row.createCell(colIndex++);
-                commentCell1.setCellValue(hk1Score.getComment() != null ? hk1Score.getComment() : "");
-                commentCell1.setCellStyle(dataStyle);
-            } else {
-                // Empty cells for HK1 if no data
-                for (int i = 0; i < 5; i++) {
-                    Cell emptyCell = row.createCell(colIndex++);
-                    emptyCell.setCellStyle(dataStyle);
-                }
-            }
+            String studentName = gradebookRow.getStudentName();
+            textCell(row, colIndex++, studentName != null ? studentName : "", nameStyle, widths);
 
-            // HK2 scores
-            if (hk2Score != null) {
-                // ĐĐGtx - average of regular scores
-                double avgTx2 = hk2Score.getDdgtxList() != null && !hk2Score.getDdgtxList().isEmpty()
-                        ? hk2Score.getDdgtxList().stream().mapToInt(Integer::intValue).average().orElse(0.0)
-                        : 0.0;
-                Cell txCell2 = row.createCell(colIndex++);
-                txCell2.setCellValue(Math.round(avgTx2 * 10.0) / 10.0);
-                txCell2.setCellStyle(dataStyle);
-
-                // ĐĐGgk (mid-term)
-                Cell gkCell2 = row.createCell(colIndex++);
-                gkCell2.setCellValue(hk2Score.getDdggk() != null ? hk2Score.getDdggk() : 0);
-                gkCell2.setCellStyle(dataStyle);
-
-                // ĐĐGck (final)
-                Cell ckCell2 = row.createCell(colIndex++);
-                ckCell2.setCellValue(hk2Score.getDdgck() != null ? hk2Score.getDdgck() : 0);
-                ckCell2.setCellStyle(dataStyle);
-
-                // TBm HK2
-                Cell tbmCell2 = row.createCell(colIndex++);
-                tbmCell2.setCellValue(hk2Score.getTbm() != null ? hk2Score.getTbm() : 0.0);
-                tbmCell2.setCellStyle(dataStyle);
-
-                // Comment HK2
-                Cell commentCell2 = row.createCell(colIndex++);
-                commentCell2.setCellValue(hk2Score.getComment() != null ? hk2Score.getComment() : "");
-                commentCell2.setCellStyle(dataStyle);
-            } else {
-                // Empty cells for HK2 if no data
-                for (int i = 0; i < 5; i++) {
-                    Cell emptyCell = row.createCell(colIndex++);
-                    emptyCell.setCellStyle(dataStyle);
-                }
-            }
+            // HK1 and HK2 scores
+            colIndex = fillSemester(row, colIndex, gradebookRow.getHk1(), dataStyle, widths);
+            colIndex = fillSemester(row, colIndex, gradebookRow.getHk2(), dataStyle, widths);
 
             // TBm CN (yearly average)
-            double yearlyAvg = 0.0;
-            int count = 0;
-            if (hk1Score != null && hk1Score.getTbm() != null) {
-                yearlyAvg += hk1Score.getTbm();
-                // count++;
-            }
-            if (hk2Score != null && hk2Score.getTbm() != null) {
-                yearlyAvg += hk2Score.getTbm();
-                count++;
-            }
-            if (count > 0) {
-                Cell avgCell = row.createCell(colIndex++);
-                avgCell.setCellValue(Math.round((yearlyAvg / count) * 10.0) / 10.0);
-                avgCell.setCellStyle(dataStyle);
+            if (gradebookRow.getYearlyTbm() != null) {
+                numberCell(row, colIndex++, gradebookRow.getYearlyTbm(), dataStyle, widths);
             } else {
                 Cell avgCell = row.createCell(colIndex++);
                 avgCell.setCellStyle(dataStyle);
@@ -762,18 +1189,39 @@ public class ScoreServiceImpl implements ScoreService {
         }
     }
 
-    private void autoSizeColumns(Sheet sheet) {
-        // Auto-size columns for better readability
-        for (int i = 0; i < 13; i++) {
-            sheet.autoSizeColumn(i);
-            // Set minimum width
-            if (sheet.getColumnWidth(i) < 2000) {
-                sheet.setColumnWidth(i, 2000);
-            }
-            // Set maximum width for name column
-            if (i == 1 && sheet.getColumnWidth(i) > 8000) {
-                sheet.setColumnWidth(i, 8000);
+    // ĐĐGtx, ĐĐGgk, ĐĐGck, TBm and comment of one semester; empty bordered cells when there is no score
+    private int fillSemester(Row row, int colIndex, GradebookRow.Semester semester, CellStyle dataStyle,
+                             ColumnWidthTracker widths) {
+        if (semester == null) {
+            for (int i = 0; i < 5; i++) {
+                Cell emptyCell = row.createCell(colIndex++);
+                emptyCell.setCellStyle(dataStyle);
             }
+            return colIndex;
+        }
+        numberCell(row, colIndex++, semester.getDdgtx(), dataStyle, widths);
+        numberCell(row, colIndex++, semester.getDdggk() != null ? semester.getDdggk() : 0, dataStyle, widths);
+        numberCell(row, colIndex++, semester.getDdgck() != null ? semester.getDdgck() : 0, dataStyle, widths);
+        numberCell(row, colIndex++, semester.getTbm() != null ? semester.getTbm() : 0.0, dataStyle, widths);
+        textCell(row, colIndex++, semester.getComment() != null ? semester.getComment() : "", dataStyle, widths);
+        return colIndex;
+    }
+
+    private static void textCell(Row row, int column, String value, CellStyle style, ColumnWidthTracker widths) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+        widths.track(column, value);
+    }
+
+    private static void numberCell(Row row, int column, double value, CellStyle style, ColumnWidthTracker widths) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
         }
+        widths.track(column, value);
     }
 }
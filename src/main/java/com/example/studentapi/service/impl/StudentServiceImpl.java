@@ -1,19 +1,64 @@
 package com.example.studentapi.service.impl;
 
+import com.example.studentapi.dto.ImportReport;
 import com.example.studentapi.model.Student;
 import com.example.studentapi.repository.StudentRepository;
+import com.example.studentapi.service.ScoreService;
 import com.example.studentapi.service.StudentService;
+import com.example.studentapi.util.CsvReader;
+import com.example.studentapi.util.CsvWriter;
+import com.example.studentapi.util.ExcelHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @Service
 public class StudentServiceImpl implements StudentService {
 
+    private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
+
+    private static final String[] CSV_COLUMNS = { "ID", "Name", "Gender", "Hometown", "Birthday" };
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final DateTimeFormatter VIETNAMESE_DATE = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String INSERT_STUDENT_SQL =
+        "INSERT INTO students (name, gender, hometown, birthday, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STUDENT_SQL =
+        "UPDATE students SET name = ?, gender = ?, hometown = ?, birthday = ?, updated_at = ? WHERE id = ?";
+
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private ScoreService scoreService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Override
     public Student findById(Long id) {
         return studentRepository.findById(id).orElse(null);
@@ -39,7 +84,267 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
+        scoreService.deleteByStudentId(id);
         studentRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public long writeStudentsCsv(OutputStream out) throws IOException {
+        List<Student> students = studentRepository.findAll();
+        CsvWriter writer = CsvWriter.utf8(out);
+        writer.record(CSV_COLUMNS);
+        for (Student student : students) {
+            writer.field(student.getId())
+                .field(student.getName())
+                .field(student.getGender())
+                .field(student.getHometown())
+                .field(student.getBirthday() != null ? student.getBirthday().toString() : null)
+                .endRecord();
+        }
+        writer.flush();
+        return students.size();
+    }
+
+    @Override
+    public ImportReport importFromCsv(InputStream in) throws IOException {
+        StudentImport studentImport = new StudentImport();
+        try (CsvReader reader = CsvReader.utf8(in)) {
+            boolean first = true;
+            while (reader.next()) {
+                if (first) {
+                    first = false;
+                    if ("ID".equalsIgnoreCase(reader.getTrimmed(0))) {
+                        continue;
+                    }
+                }
+                studentImport.add(reader.getLineNumber(), reader.getTrimmed(0), reader.getTrimmed(1),
+                    reader.getTrimmed(2), reader.getTrimmed(3), reader.getTrimmed(4));
+            }
+        }
+        return studentImport.finish();
+    }
+
+    @Override
+    public ImportReport importFromExcel(InputStream in) throws IOException {
+        StudentImport studentImport = new StudentImport();
+        ExcelHelper.readStudentRows(in,
+            (row, values) -> studentImport.add(row, values[0], values[1], values[2], values[3], values[4]));
+        return studentImport.finish();
+    }
+
+    // ID, Name, Gender, Hometown, Birthday (yyyy-MM-dd or dd/MM/yyyy); a blank ID creates a new student
+    private static Student toStudent(String id, String name, String gender, String hometown, String birthday) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        name = normalizeName(name);
+        if (name.length() > 255) {
+            throw new IllegalArgumentException("Name must be at most 255 characters");
+        }
+        if (gender != null && gender.length() > 50) {
+            throw new IllegalArgumentException("Gender must be at most 50 characters");
+        }
+        if (hometown != null && hometown.length() > 255) {
+            throw new IllegalArgumentException("Hometown must be at most 255 characters");
+        }
+        Student student = new Student();
+        if (id != null) {
+            try {
+                student.setId(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID must be a whole number: " + id);
+            }
+        }
+        student.setName(name);
+        student.setGender(gender);
+        student.setHometown(hometown);
+        if (birthday != null) {
+            LocalDate date = birthday.indexOf('/') >= 0
+                ? LocalDate.parse(birthday, VIETNAMESE_DATE)
+                : LocalDate.parse(birthday);
+            if (date.isAfter(LocalDate.now())) {
+                throw new IllegalArgumentException("Birthday is in the future: " + birthday);
+            }
+            student.setBirthday(date);
+        }
+        return student;
+    }
+
+    // Imported names are stored with single spaces so the IN lookup finds them again
+    private static String normalizeName(String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ");
+    }
+
+    // Students are the same person when name (ignoring case and spacing) and birthday match
+    private static String identityKey(String name, LocalDate birthday) {
+        return normalizeName(name).toLowerCase(Locale.ROOT) + '|' + (birthday != null ? birthday.toString() : "");
+    }
+
+    /**
+     * One bulk import. Valid rows are collected into batches; each batch is checked against
+     * existing students with two IN queries and then written with JDBC batch statements in its
+     * own transaction, so a new intake costs a few round trips per thousand students instead of
+     * a select and an insert per student. Rows with an ID update that student; rows without one
+     * are skipped when the same student is already enrolled or appears earlier in the file.
+     */
+    private final class StudentImport {
+
+        private final ImportReport report = new ImportReport();
+        private final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Identity key of each new student seen so far, with the row it came from
+        private final Map<String, Long> seen = new HashMap<>();
+        private final List<Student> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final List<Long> batchRows = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        void add(long row, String id, String name, String gender, String hometown, String birthday) {
+            report.rowRead();
+            Student student;
+            try {
+                student = toStudent(id, name, gender, hometown, birthday);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                report.reject(row, e.getMessage());
+                return;
+            }
+            if (student.getId() == null) {
+                Long previous = seen.putIfAbsent(identityKey(student.getName(), student.getBirthday()), row);
+                if (previous != null) {
+                    report.duplicate(row, "Same student as row " + previous);
+                    return;
+                }
+            }
+            batch.add(student);
+            batchRows.add(row);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        ImportReport finish() {
+            flush();
+            return report;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                Set<Long> existingIds;
+                Map<String, Long> enrolled;
+                try {
+                    existingIds = findExistingIds();
+                    enrolled = findEnrolled();
+                } catch (RuntimeException e) {
+                    fail(batchRows, e);
+                    return;
+                }
+
+                List<Student> inserts = new ArrayList<>();
+                List<Long> insertRows = new ArrayList<>();
+                List<Student> updates = new ArrayList<>();
+                List<Long> updateRows = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    Student student = batch.get(i);
+                    long row = batchRows.get(i);
+                    if (student.getId() != null) {
+                        if (existingIds.contains(student.getId())) {
+                            updates.add(student);
+                            updateRows.add(row);
+                        } else {
+                            report.reject(row, "No student with ID " + student.getId());
+                        }
+                        continue;
+                    }
+                    Long match = enrolled.get(identityKey(student.getName(), student.getBirthday()));
+                    if (match != null) {
+                        report.duplicate(row, "Already enrolled as student " + match);
+                    } else {
+                        inserts.add(student);
+                        insertRows.add(row);
+                    }
+                }
+
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        insertStudents(inserts);
+                        updateStudents(updates);
+                    });
+                    report.imported(inserts.size());
+                    report.updated(updates.size());
+                } catch (RuntimeException e) {
+                    fail(insertRows, e);
+                    fail(updateRows, e);
+                }
+            } finally {
+                batch.clear();
+                batchRows.clear();
+            }
+        }
+
+        private Set<Long> findExistingIds() {
+            Set<Long> ids = new HashSet<>();
+            for (Student student : batch) {
+                if (student.getId() != null) {
+                    ids.add(student.getId());
+                }
+            }
+            return ids.isEmpty() ? ids : new HashSet<>(studentRepository.findExistingIds(ids));
+        }
+
+        private Map<String, Long> findEnrolled() {
+            Set<String> names = new HashSet<>();
+            for (Student student : batch) {
+                if (student.getId() == null) {
+                    names.add(student.getName());
+                }
+            }
+            Map<String, Long> enrolled = new HashMap<>();
+            if (names.isEmpty()) {
+                return enrolled;
+            }
+            for (Object[] identity : studentRepository.findIdentitiesByNameIn(names)) {
+                enrolled.putIfAbsent(identityKey((String) identity[1], (LocalDate) identity[2]), (Long) identity[0]);
+            }
+            return enrolled;
+        }
+
+        private void fail(List<Long> rows, RuntimeException e) {
+            log.warn("Student import batch failed: {}", e.getMessage());
+            for (Long row : rows) {
+                report.reject(row, "Batch could not be saved: " + e.getMessage());
+            }
+        }
+    }
+
+    private void insertStudents(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, students, IMPORT_BATCH_SIZE, (ps, student) -> {
+            ps.setString(1, student.getName());
+            ps.setString(2, student.getGender());
+            ps.setString(3, student.getHometown());
+            ps.setDate(4, student.getBirthday() != null ? Date.valueOf(student.getBirthday()) : null);
+            ps.setDate(5, today);
+            ps.setDate(6, today);
+        });
+    }
+
+    private void updateStudents(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.batchUpdate(UPDATE_STUDENT_SQL, students, IMPORT_BATCH_SIZE, (ps, student) -> {
+            ps.setString(1, student.getName());
+            ps.setString(2, student.getGender());
+            ps.setString(3, student.getHometown());
+            ps.setDate(4, student.getBirthday() != null ? Date.valueOf(student.getBirthday()) : null);
+            ps.setDate(5, today);
+            ps.setLong(6, student.getId());
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.config.CacheConfig;
+import com.example.studentapi.dto.SubjectTrend;
+import com.example.studentapi.dto.TrendPoint;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.service.StudentTrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class StudentTrendServiceImpl implements StudentTrendService {
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.STUDENT_TRENDS, key = "#studentId")
+    public List<SubjectTrend> getTrends(Long studentId) {
+        // Rows arrive ordered by subject, so each subject is one contiguous run
+        List<SubjectTrend> trends = new ArrayList<>();
+        List<TrendPoint> current = null;
+        String currentSubject = null;
+        for (TrendPoint point : scoreRepository.findTrendPointsForStudent(studentId)) {
+            if (current == null || !point.getSubject().equals(currentSubject)) {
+                currentSubject = point.getSubject();
+                current = new ArrayList<>();
+                trends.add(new SubjectTrend(currentSubject, Collections.unmodifiableList(current)));
+            }
+            current.add(point);
+        }
+        return Collections.unmodifiableList(trends);
+    }
+
+    // Evict after commit so a concurrent read cannot re-cache the pre-change series
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictOnScoreChange(ScoreChangedEvent event) {
+        Cache trends = cacheManager.getCache(CacheConfig.STUDENT_TRENDS);
+        if (trends != null) {
+            evictStudent(trends, event.getBefore());
+            evictStudent(trends, event.getAfter());
+        }
+    }
+
+    private static void evictStudent(Cache cache, ScoreSnapshot snapshot) {
+        if (snapshot != null && snapshot.getStudentId() != null) {
+            cache.evict(snapshot.getStudentId());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.studentapi.controller.TeacherController.CreateTeacherRequest;
 import com.example.studentapi.controller.TeacherController.UpdateTeacherRequest;
 import com.example.studentapi.model.Teacher;
 import com.example.studentapi.repository.TeacherRepository;
+import com.example.studentapi.service.ScoreService;
 import com.example.studentapi.service.TeacherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -21,6 +22,9 @@ public class TeacherServiceImpl implements TeacherService {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private ScoreService scoreService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Override
@@ -60,6 +64,7 @@ public class TeacherServiceImpl implements TeacherService {
 
     @Override
     public void delete(Long id) {
+        scoreService.deleteByTeacherId(id);
         teacherRepository.deleteById(id);
     }
 
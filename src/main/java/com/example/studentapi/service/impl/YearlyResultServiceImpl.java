@@ -0,0 +1,125 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.dto.PromotionEntry;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.YearlyResult;
+import com.example.studentapi.model.YearlyResultId;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.repository.YearlyResultRepository;
+import com.example.studentapi.service.YearlyResultService;
+import com.example.studentapi.util.VietnameseNameOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+public class YearlyResultServiceImpl implements YearlyResultService {
+
+    @Autowired
+    private YearlyResultRepository yearlyResultRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    // Synchronous listener: runs inside the score write's transaction
+    @Override
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        ScoreSnapshot before = event.getBefore();
+        ScoreSnapshot after = event.getAfter();
+
+        // Before and after usually share a row; load each row once so it is not deleted and re-created
+        Map<YearlyResultId, YearlyResult> touched = new LinkedHashMap<>();
+        if (before != null && isComplete(before)) {
+            rowFor(touched, before).setSemesterTbm(before.getSemester(), null);
+        }
+        if (after != null && isComplete(after)) {
+            YearlyResult result = rowFor(touched, after);
+            result.setSemesterTbm(after.getSemester(), after.getTbm());
+            if (after.getStudentName() != null) {
+                result.setStudentName(after.getStudentName());
+            }
+        }
+
+        for (YearlyResult result : touched.values()) {
+            if (result.isEmpty()) {
+                yearlyResultRepository.delete(result);
+            } else {
+                yearlyResultRepository.save(result);
+            }
+        }
+    }
+
+    @Override
+    public int rebuildAll() {
+        yearlyResultRepository.deleteAllInBatch();
+
+        List<YearlyResult> rebuilt = new ArrayList<>();
+        for (Object[] row : scoreRepository.aggregateYearlyResults()) {
+            YearlyResult result = new YearlyResult(new YearlyResultId(
+                (String) row[0], (Integer) row[2], ((Number) row[3]).longValue(), (String) row[1]));
+            result.setStudentName((String) row[4]);
+            result.setSemesterTbm("1", (Double) row[5]);
+            result.setSemesterTbm("2", (Double) row[6]);
+            if (!result.isEmpty()) {
+                rebuilt.add(result);
+            }
+        }
+
+        yearlyResultRepository.saveAll(rebuilt);
+        return rebuilt.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearlyResult> getClassSubjectResults(String className, String subject, int year) {
+        return yearlyResultRepository.findForClassSubject(className, subject, year);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearlyResult> getClassResults(String className, int year) {
+        return VietnameseNameOrder.sort(yearlyResultRepository.findForClass(className, year),
+            YearlyResult::getStudentName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<YearlyResult> getStudentResults(Long studentId, Integer year) {
+        return yearlyResultRepository.findForStudent(studentId, year);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PromotionEntry> getPromotionList(String className, int year, double threshold) {
+        return VietnameseNameOrder.sort(yearlyResultRepository.findPromotionList(className, year, threshold),
+            PromotionEntry::getStudentName);
+    }
+
+    private YearlyResult rowFor(Map<YearlyResultId, YearlyResult> touched, ScoreSnapshot snapshot) {
+        YearlyResultId key = new YearlyResultId(snapshot.getClassName(), snapshot.getYear(),
+            snapshot.getStudentId(), snapshot.getSubject());
+        return touched.computeIfAbsent(key, k -> {
+            yearlyResultRepository.insertIfAbsent(k.getClassName(), k.getYear(), k.getStudentId(), k.getSubject(),
+                snapshot.getStudentName());
+            return yearlyResultRepository.findForUpdate(k).orElseGet(() -> {
+                YearlyResult created = new YearlyResult(k);
+                created.setStudentName(snapshot.getStudentName());
+                return created;
+            });
+        });
+    }
+
+    private static boolean isComplete(ScoreSnapshot snapshot) {
+        return snapshot.getStudentId() != null && snapshot.getClassName() != null
+            && snapshot.getSubject() != null && snapshot.getYear() != null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.studentapi.util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Estimates column widths from the longest value written to each column.
+ * Replaces {@link Sheet#autoSizeColumn(int)}, which lays out every cell with font
+ * metrics and needs all rows in memory, so it cannot be used with streaming workbooks.
+ * Widths are in POI units of 1/256 of a character.
+ */
+public class ColumnWidthTracker {
+
+    private static final int PADDING_CHARS = 2;
+    private static final double BOLD_FACTOR = 1.1;
+
+    private final double[] maxChars;
+    private final int[] maxWidths;
+
+    public ColumnWidthTracker(int columns) {
+        this.maxChars = new double[columns];
+        this.maxWidths = new int[columns];
+    }
+
+    public void track(int column, String text) {
+        record(column, visibleLength(text));
+    }
+
+    public void track(int column, double value) {
+        record(column, format(value).length());
+    }
+
+    public void trackBold(int column, String text) {
+        record(column, visibleLength(text) * BOLD_FACTOR);
+    }
+
+    public void setMaxWidth(int column, int width) {
+        if (column >= 0 && column < maxWidths.length) {
+            maxWidths[column] = width;
+        }
+    }
+
+    public void apply(Sheet sheet, int minWidth) {
+        for (int i = 0; i < maxChars.length; i++) {
+            int width = (int) Math.ceil((maxChars[i] + PADDING_CHARS) * 256);
+            width = Math.max(width, minWidth);
+            if (maxWidths[i] > 0) {
+                width = Math.min(width, maxWidths[i]);
+            }
+            sheet.setColumnWidth(i, Math.min(width, 255 * 256));
+        }
+    }
+
+    private void record(int column, double chars) {
+        // Columns outside the tracked range keep Excel's default width
+        if (column >= 0 && column < maxChars.length && chars > maxChars[column]) {
+            maxChars[column] = chars;
+        }
+    }
+
+    // Longest line, not counting combining marks of decomposed Vietnamese text
+    private static int visibleLength(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                current++;
+            }
+        }
+        return Math.max(longest, current);
+    }
+
+    // As shown by Excel's General format: 8.0 as "8", 7.5 as "7.5"
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.studentapi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming RFC 4180 CSV reader: quoted fields with "" escapes, delimiters and line breaks
+ * inside quotes, CRLF or LF line ends, and a leading UTF-8 byte order mark.
+ * Input is read through one reusable char buffer and the fields of the current record are
+ * kept in another, so a record costs no allocation until a field is asked for as a String;
+ * {@link #getInt(int)} and {@link #getLong(int)} parse straight from the buffer.
+ * Blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean started;
+    // The previous record ended with CR; a following LF belongs to it
+    private boolean pendingLf;
+
+    // Fields of the current record, back to back
+    private char[] chars = new char[1024];
+    private int length;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    public static CsvReader utf8(InputStream in) {
+        return new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false at the end of the input
+     */
+    public boolean next() throws IOException {
+        length = 0;
+        fieldCount = 0;
+        recordLineNumber = lineNumber;
+
+        boolean quoted = false;
+        boolean quoteInQuoted = false;
+        boolean any = false;
+        int fieldStart = 0;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                if (!any) {
+                    return false;
+                }
+                endField(fieldStart);
+                return true;
+            }
+            char c = buffer[position++];
+
+            if (pendingLf) {
+                pendingLf = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                    quoteInQuoted = true;
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(c);
+                }
+                continue;
+            }
+
+            if (quoteInQuoted) {
+                quoteInQuoted = false;
+                if (c == '"') {
+                    // Escaped quote: back inside the quoted section
+                    append('"');
+                    quoted = true;
+                    continue;
+                }
+            }
+
+            if (c == delimiter) {
+                any = true;
+                endField(fieldStart);
+                fieldStart = length;
+            } else if (c == '\n' || c == '\r') {
+                lineNumber++;
+                pendingLf = c == '\r';
+                if (any) {
+                    endField(fieldStart);
+                    return true;
+                }
+                // Blank line
+                recordLineNumber = lineNumber;
+            } else if (c == '"' && length == fieldStart) {
+                any = true;
+                quoted = true;
+            } else {
+                any = true;
+                append(c);
+            }
+        }
+    }
+
+    /**
+     * Number of fields in the current record
+     */
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * Physical line on which the current record starts, from 1
+     */
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * @return the field, or null when the record has fewer fields
+     */
+    public String get(int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        return new String(chars, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * @return true when the field is missing or only whitespace
+     */
+    public boolean isBlank(int index) {
+        if (index >= fieldCount) {
+            return true;
+        }
+        for (int i = starts[index]; i < ends[index]; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the field as a trimmed String, or null when it is blank
+     */
+    public String getTrimmed(int index) {
+        if (isBlank(index)) {
+            return null;
+        }
+        int start = starts[index];
+        int end = ends[index];
+        while (Character.isWhitespace(chars[start])) start++;
+        while (Character.isWhitespace(chars[end - 1])) end--;
+        return new String(chars, start, end - start);
+    }
+
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Not an integer: " + get(index));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a decimal integer without creating a String; surrounding whitespace is ignored
+     */
+    public long getLong(int index) {
+        if (isBlank(index)) {
+            throw new NumberFormatException("Missing number in column " + (index + 1));
+        }
+        int start = starts[index];
+        int end = ends[index];
+        while (Character.isWhitespace(chars[start])) start++;
+        while (Character.isWhitespace(chars[end - 1])) end--;
+
+        boolean negative = false;
+        if (chars[start] == '-' || chars[start] == '+') {
+            negative = chars[start] == '-';
+            start++;
+        }
+        if (start == end || end - start > 18) {
+            throw new NumberFormatException("Not an integer: " + get(index));
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not an integer: " + get(index));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    public double getDouble(int index) {
+        String value = getTrimmed(index);
+        if (value == null) {
+            throw new NumberFormatException("Missing number in column " + (index + 1));
+        }
+        return Double.parseDouble(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            eof = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        if (!started) {
+            started = true;
+            if (buffer[0] == BOM) {
+                position = 1;
+                return position < limit || fill();
+            }
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            char[] grown = new char[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+        chars[length++] = c;
+    }
+
+    private void endField(int fieldStart) {
+        if (fieldCount == starts.length) {
+            int[] grownStarts = new int[starts.length * 2];
+            int[] grownEnds = new int[ends.length * 2];
+            System.arraycopy(starts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(ends, 0, grownEnds, 0, fieldCount);
+            starts = grownStarts;
+            ends = grownEnds;
+        }
+        starts[fieldCount] = fieldStart;
+        ends[fieldCount] = length;
+        fieldCount++;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.studentapi.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming RFC 4180 CSV writer with its own reusable char buffer. Fields are quoted only when
+ * they contain the delimiter, a quote or a line break; integers are formatted straight into
+ * the buffer. Records end with CRLF.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private int position;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer writer) {
+        this(writer, ',');
+    }
+
+    public CsvWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    public static CsvWriter utf8(OutputStream out) {
+        return new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a text field; null is written as an empty field
+     */
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            write(value);
+            return this;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        if (value == Long.MIN_VALUE) {
+            write(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int n = digits.length;
+        do {
+            digits[--n] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = n; i < digits.length; i++) {
+            put(digits[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a number the way a spreadsheet shows it in General format (8.0 as "8");
+     * null is written as an empty field
+     */
+    public CsvWriter field(Number value) throws IOException {
+        if (value == null) {
+            separate();
+            return this;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 1e15) {
+                return field((long) d);
+            }
+            separate();
+            write(Double.toString(d));
+            return this;
+        }
+        return field(value.longValue());
+    }
+
+    public void endRecord() throws IOException {
+        put('\r');
+        put('\n');
+        firstField = true;
+    }
+
+    /**
+     * Writes a whole record of text fields
+     */
+    public void record(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRecord();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void separate() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            put(delimiter);
+        }
+    }
+
+    private void write(String value) throws IOException {
+        int offset = 0;
+        int remaining = value.length();
+        while (remaining > 0) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int count = Math.min(remaining, buffer.length - position);
+            value.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
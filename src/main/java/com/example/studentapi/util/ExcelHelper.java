@@ -1,18 +1,32 @@
 package com.example.studentapi.util;
 
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Date;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.xml.parsers.ParserConfigurationException;
+
 import com.example.studentapi.model.Student;
 
 public class ExcelHelper {
@@ -25,31 +39,126 @@ public class ExcelHelper {
         return TYPE.equals(file.getContentType());
     }
 
-    public static List<Student> excelToStudents(InputStream is) {
-        try (Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheet(SHEET);
-            List<Student> students = new ArrayList<>();
+    /**
+     * Receives the rows of a streamed student sheet in order.
+     */
+    public interface StudentRowHandler {
+        /**
+         * @param rowNumber row number as shown in Excel, from 1
+         * @param values    trimmed cell text in HEADERs order, null for empty cells; dates as yyyy-MM-dd
+         */
+        void row(int rowNumber, String[] values);
+    }
+
+    /**
+     * Streams the "Students" sheet (or the first sheet when there is none) through the SAX event
+     * API, so only the shared strings and the current row are held in memory. A header row and
+     * blank rows are skipped.
+     *
+     * @throws IllegalArgumentException when the file is not a readable .xlsx workbook
+     */
+    public static void readStudentRows(InputStream is, StudentRowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(is)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            int sheetIndex = findSheet(reader, SHEET);
+            if (sheetIndex < 0) {
+                throw new IllegalArgumentException("The workbook has no sheets");
+            }
+
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                new StudentSheetHandler(handler), new IsoDateFormatter(), false));
 
-            for (Row row : sheet) {
-                if (row.getRowNum() == 0) {
-                    continue; // skip header
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            for (int i = 0; sheets.hasNext(); i++) {
+                try (InputStream sheet = sheets.next()) {
+                    if (i == sheetIndex) {
+                        parser.parse(new InputSource(sheet));
+                        return;
+                    }
                 }
-                Student student = new Student();
-                student.setId((long) row.getCell(0).getNumericCellValue());
-                student.setName(row.getCell(1).getStringCellValue());
-                student.setGender(row.getCell(2).getStringCellValue());
-                student.setHometown(row.getCell(3).getStringCellValue());
-                Date birthdayDate = row.getCell(4).getDateCellValue();
-                student.setBirthday(birthdayDate == null ? null : birthdayDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
-                students.add(student);
             }
-            return students;
-        } catch (IOException e) {
-            throw new RuntimeException("fail to parse Excel file: " + e.getMessage());
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("fail to parse Excel file: " + e.getMessage());
+        }
+    }
+
+    // Index of the named sheet, else 0 for the first sheet, or -1 for an empty workbook
+    private static int findSheet(XSSFReader reader, String name) throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        int count = 0;
+        while (sheets.hasNext()) {
+            try (InputStream ignored = sheets.next()) {
+                if (name.equalsIgnoreCase(sheets.getSheetName())) {
+                    return count;
+                }
+            }
+            count++;
+        }
+        return count > 0 ? 0 : -1;
+    }
+
+    private static final class StudentSheetHandler implements SheetContentsHandler {
+
+        private final StudentRowHandler handler;
+        private final String[] values = new String[HEADERs.length];
+        private int column;
+        private boolean blank;
+
+        StudentSheetHandler(StudentRowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            column = -1;
+            blank = true;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (blank || (rowNum == 0 && HEADERs[0].equalsIgnoreCase(values[0]))) {
+                return;
+            }
+            handler.row(rowNum + 1, values.clone());
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            column = cellReference != null ? new CellReference(cellReference).getCol() : column + 1;
+            if (column >= values.length || formattedValue == null) {
+                return;
+            }
+            String value = formattedValue.trim();
+            if (!value.isEmpty()) {
+                values[column] = value;
+                blank = false;
+            }
+        }
+    }
+
+    // Renders date-formatted numeric cells as ISO dates whatever their display format
+    private static final class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
         }
     }
 
     public static ByteArrayInputStream studentsToExcel(List<Student> students) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeStudentsExcel(students, outputStream);
+        return new ByteArrayInputStream(outputStream.toByteArray());
+    }
+
+    // Streams the workbook straight to the target (a file or the response) without an in-memory copy
+    public static void writeStudentsExcel(List<Student> students, OutputStream out) {
         try (Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet(SHEET);
             Row headerRow = sheet.createRow(0);
@@ -69,9 +178,7 @@ public class ExcelHelper {
                 row.createCell(4).setCellValue(student.getBirthday());
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return new ByteArrayInputStream(outputStream.toByteArray());
+            workbook.write(out);
         } catch (IOException e) {
             throw new RuntimeException("fail to export data to Excel file: " + e.getMessage());
         }
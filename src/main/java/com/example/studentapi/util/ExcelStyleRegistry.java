@@ -0,0 +1,62 @@
+package com.example.studentapi.util;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cell styles of one workbook, each created on first use and shared by every sheet.
+ * Styles and fonts are workbook-level records: creating them per cell or per sheet
+ * bloats the file and runs into Excel's limit of 64000 styles on large exports.
+ */
+public class ExcelStyleRegistry {
+
+    public enum Style {
+        HEADER, DATA, NAME
+    }
+
+    private final Workbook workbook;
+    private final Map<Style, CellStyle> styles = new EnumMap<>(Style.class);
+    private Font boldFont;
+
+    public ExcelStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    public CellStyle get(Style style) {
+        return styles.computeIfAbsent(style, this::create);
+    }
+
+    private CellStyle create(Style style) {
+        CellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.setBorderBottom(BorderStyle.THIN);
+        cellStyle.setBorderTop(BorderStyle.THIN);
+        cellStyle.setBorderLeft(BorderStyle.THIN);
+        cellStyle.setBorderRight(BorderStyle.THIN);
+        switch (style) {
+            case HEADER:
+                cellStyle.setFont(boldFont());
+                cellStyle.setAlignment(HorizontalAlignment.CENTER);
+                break;
+            case NAME:
+                cellStyle.setAlignment(HorizontalAlignment.LEFT);
+                break;
+            default:
+                cellStyle.setAlignment(HorizontalAlignment.CENTER);
+        }
+        return cellStyle;
+    }
+
+    private Font boldFont() {
+        if (boldFont == null) {
+            boldFont = workbook.createFont();
+            boldFont.setBold(true);
+        }
+        return boldFont;
+    }
+}
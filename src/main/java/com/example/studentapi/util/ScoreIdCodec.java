@@ -0,0 +1,91 @@
+package com.example.studentapi.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Encodes and decodes legacy score IDs.
+ * Format: teacherId_studentId_year_semester_classKey_subjectKey, where the class name
+ * and subject are reduced to ASCII keys by {@link VietnameseTransliterator}.
+ */
+public class ScoreIdCodec {
+
+    private static final char SEPARATOR = '_';
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses a score ID back into its components.
+     *
+     * @param scoreId the ID to parse
+     * @return the decoded components
+     * @throws IllegalArgumentException if the ID is not in the score ID format
+     */
+    public static Parts decode(String scoreId) {
+        if (scoreId == null) {
+            throw new IllegalArgumentException("Score ID is required");
+        }
+        // Numeric parts come first; class and subject keys never contain the separator,
+        // so they are taken from the end and the semester is whatever remains between
+        int first = scoreId.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : scoreId.indexOf(SEPARATOR, first + 1);
+        int third = second < 0 ? -1 : scoreId.indexOf(SEPARATOR, second + 1);
+        int last = scoreId.lastIndexOf(SEPARATOR);
+        int beforeLast = last <= 0 ? -1 : scoreId.lastIndexOf(SEPARATOR, last - 1);
+        if (third < 0 || beforeLast <= third) {
+            throw new IllegalArgumentException("Invalid score ID format: " + scoreId);
+        }
+        try {
+            return new Parts(
+                Long.parseLong(scoreId.substring(0, first)),
+                Long.parseLong(scoreId.substring(first + 1, second)),
+                Integer.parseInt(scoreId.substring(second + 1, third)),
+                scoreId.substring(third + 1, beforeLast),
+                scoreId.substring(beforeLast + 1, last),
+                scoreId.substring(last + 1)
+            );
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid score ID format: " + scoreId, e);
+        }
+    }
+
+    public static class Builder {
+        private Long teacherId;
+        private Long studentId;
+        private Integer year;
+        private String semester;
+        private String className;
+        private String subject;
+
+        public Builder teacherId(Long teacherId) { this.teacherId = teacherId; return this; }
+        public Builder studentId(Long studentId) { this.studentId = studentId; return this; }
+        public Builder year(Integer year) { this.year = year; return this; }
+        public Builder semester(String semester) { this.semester = semester; return this; }
+        public Builder className(String className) { this.className = className; return this; }
+        public Builder subject(String subject) { this.subject = subject; return this; }
+
+        public String build() {
+            StringBuilder sb = new StringBuilder(64);
+            sb.append(teacherId).append(SEPARATOR)
+              .append(studentId).append(SEPARATOR)
+              .append(year).append(SEPARATOR)
+              .append(semester).append(SEPARATOR)
+              .append(VietnameseTransliterator.toAsciiKey(className)).append(SEPARATOR)
+              .append(VietnameseTransliterator.toAsciiKey(subject));
+            return sb.toString();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Parts {
+        private final Long teacherId;
+        private final Long studentId;
+        private final Integer year;
+        private final String semester;
+        private final String classKey;
+        private final String subjectKey;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.studentapi.util;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Sorts people by Vietnamese name the way class lists are ordered: by given name (the last
+ * word), then family name (the first word), then middle name, using Vietnamese collation
+ * (ă and â after a, đ after d, tones as secondary differences).
+ * Collation keys are computed once per item, so a sort costs n key builds plus
+ * O(n log n) byte comparisons instead of re-collating strings on every comparison.
+ */
+public class VietnameseNameOrder {
+
+    private static final Locale VIETNAMESE = new Locale("vi", "VN");
+
+    /**
+     * Returns the items sorted by name; items without a name come last.
+     *
+     * @param items the items to sort
+     * @param nameOf the full name of an item, called once per item, may return null
+     */
+    public static <T> List<T> sort(Collection<T> items, Function<? super T, String> nameOf) {
+        // Collators are not thread-safe; getInstance returns a fresh copy
+        Collator collator = Collator.getInstance(VIETNAMESE);
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+
+        @SuppressWarnings("unchecked")
+        Keyed<T>[] keyed = new Keyed[items.size()];
+        int i = 0;
+        for (T item : items) {
+            keyed[i] = new Keyed<>(item, keysFor(collator, nameOf.apply(item)), i);
+            i++;
+        }
+        Arrays.sort(keyed);
+
+        List<T> sorted = new ArrayList<>(keyed.length);
+        for (Keyed<T> entry : keyed) {
+            sorted.add(entry.item);
+        }
+        return sorted;
+    }
+
+    // Given name, family name, middle name, then the full name as written
+    private static CollationKey[] keysFor(Collator collator, String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+        String trimmed = name.trim();
+        String[] words = trimmed.split("\\s+");
+        String given = words[words.length - 1];
+        String family = words.length > 1 ? words[0] : "";
+        String middle = words.length > 2 ? String.join(" ", Arrays.copyOfRange(words, 1, words.length - 1)) : "";
+        return new CollationKey[] {
+            collator.getCollationKey(given),
+            collator.getCollationKey(family),
+            collator.getCollationKey(middle),
+            collator.getCollationKey(trimmed)
+        };
+    }
+
+    private static final class Keyed<T> implements Comparable<Keyed<T>> {
+        final T item;
+        final CollationKey[] keys;
+        final int position;
+
+        Keyed(T item, CollationKey[] keys, int position) {
+            this.item = item;
+            this.keys = keys;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(Keyed<T> other) {
+            if (keys == null || other.keys == null) {
+                if (keys != other.keys) {
+                    return keys == null ? 1 : -1;
+                }
+            } else {
+                for (int i = 0; i < keys.length; i++) {
+                    int cmp = keys[i].compareTo(other.keys[i]);
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+            }
+            // Equal names keep their input order
+            return Integer.compare(position, other.position);
+        }
+    }
+}
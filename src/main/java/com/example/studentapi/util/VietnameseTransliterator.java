@@ -0,0 +1,66 @@
+package com.example.studentapi.util;
+
+public class VietnameseTransliterator {
+
+    private static final String[] BASE_GROUPS = {
+        "aàáạảãâầấậẩẫăằắặẳẵ",
+        "eèéẹẻẽêềếệểễ",
+        "iìíịỉĩ",
+        "oòóọỏõôồốộổỗơờớợởỡ",
+        "uùúụủũưừứựửữ",
+        "yỳýỵỷỹ",
+        "dđ"
+    };
+
+    // Covers Basic Latin through Latin Extended Additional (U+1EF9 is the last Vietnamese letter)
+    private static final int TABLE_SIZE = 0x1F00;
+
+    // Lowercase ASCII replacement for each char, or 0 when the char is dropped
+    private static final char[] TABLE = buildTable();
+
+    private static char[] buildTable() {
+        char[] table = new char[TABLE_SIZE];
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = c;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = c;
+        }
+        for (String group : BASE_GROUPS) {
+            char base = group.charAt(0);
+            for (int i = 1; i < group.length(); i++) {
+                table[group.charAt(i)] = base;
+            }
+        }
+        // Upper-case letters map like their lower-case form
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            char lower = Character.toLowerCase((char) c);
+            if (table[c] == 0 && lower != c && lower < TABLE_SIZE) {
+                table[c] = table[lower];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Lower-cases the input, strips Vietnamese diacritics and drops every
+     * character that is not an ASCII letter or digit, in a single pass.
+     *
+     * @param input the text to clean, may be null
+     * @return the cleaned text, empty for null input
+     */
+    public static String toAsciiKey(String input) {
+        if (input == null) return "";
+        int length = input.length();
+        char[] out = new char[length];
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            char mapped = c < TABLE_SIZE ? TABLE[c] : 0;
+            if (mapped != 0) {
+                out[n++] = mapped;
+            }
+        }
+        return new String(out, 0, n);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.studentapi.analytics;
+
+import com.example.studentapi.dto.AnalyticsFilter;
+import com.example.studentapi.dto.AnalyticsGroup;
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.RollupDimension;
+import com.example.studentapi.model.SchoolClass;
+import com.example.studentapi.model.Score;
+import com.example.studentapi.model.Student;
+import com.example.studentapi.model.Teacher;
+import com.example.studentapi.repository.ClassRepository;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.repository.StudentRepository;
+import com.example.studentapi.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The column store must match the scores table after a load, follow committed changes
+ * incrementally, and keep changes that arrive while a reload is reading the table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScoreColumnStoreTest {
+
+    private static final String CLASS_NAME = "10A1";
+    private static final String SUBJECT = "Toan";
+    private static final int YEAR = 2024;
+
+    @Autowired
+    private ScoreColumnStore store;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    private SchoolClass schoolClass;
+    private Teacher teacher;
+    private final List<Long> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        teacher = teacherRepository.save(new Teacher("Nguyen Van A", Teacher.Gender.MEN, "Ha Noi",
+            LocalDate.of(1980, 1, 1), "teacher_a", "hash", "a@example.com"));
+        for (String name : List.of("Tran Thi B", "Le Van C")) {
+            studentIds.add(studentRepository.save(
+                new Student(null, name, "WOMEN", "Ha Noi", LocalDate.of(2008, 1, 1))).getId());
+        }
+
+        schoolClass = new SchoolClass();
+        schoolClass.setClassName(CLASS_NAME);
+        schoolClass.setGradeLevel(10);
+        schoolClass.setAcademicYear(YEAR);
+        schoolClass.setSemester("1");
+        schoolClass.setSubject(SUBJECT);
+        schoolClass = classRepository.save(schoolClass);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoreRepository.deleteAll();
+        studentRepository.deleteAll();
+        classRepository.deleteAll();
+        teacherRepository.deleteAll();
+        store.reload();
+    }
+
+    // ========== LOAD ==========
+
+    @Test
+    void reloadReadsEveryScore() {
+        scoreRepository.save(score(1, 8, 9));
+        scoreRepository.save(score(2, 4, 4));
+
+        store.reload();
+
+        assertTrue(store.isReady());
+        AnalyticsGroup all = classAggregate();
+        assertEquals(2, all.getScoreCount());
+        assertEquals(2, all.getGradedCount());
+        assertEquals(3.3, all.getMinTbm());
+        assertEquals(7.2, all.getMaxTbm());
+        assertEquals(0.5, all.getPassRate());
+
+        Map<String, ScoreAccumulator> byGrade = store.aggregateBy(new AnalyticsFilter(), RollupDimension.GRADE_LEVEL);
+        assertEquals(1, byGrade.size());
+        assertEquals(2, byGrade.get("10").toGroup("10").getScoreCount());
+    }
+
+    // ========== INCREMENTAL UPDATES ==========
+
+    @Test
+    void scoreChangesApplyWithoutReload() {
+        Score first = scoreRepository.save(score(1, 8, 9));
+        store.reload();
+
+        Score regraded = score(1, 4, 4);
+        store.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(first), ScoreSnapshot.of(regraded)));
+        Score second = score(2, 6, 6);
+        store.onScoreChanged(new ScoreChangedEvent(null, ScoreSnapshot.of(second)));
+
+        AnalyticsGroup all = classAggregate();
+        assertEquals(2, all.getScoreCount());
+        assertEquals(3.3, all.getMinTbm());
+        assertEquals(5.0, all.getMaxTbm());
+
+        store.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(regraded), null));
+
+        all = classAggregate();
+        assertEquals(1, all.getScoreCount());
+        assertEquals(5.0, all.getAverageTbm());
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        scoreRepository.save(score(1, 8, 9));
+        store.reload();
+
+        AnalyticsFilter filter = new AnalyticsFilter();
+        filter.setClassName("12C9");
+        assertEquals(0, store.aggregate(filter, false).toGroup(null).getScoreCount());
+    }
+
+    // ========== CHANGES DURING RELOAD ==========
+
+    @Test
+    void changesSeenDuringReloadAreReplayedOntoNewSnapshot() {
+        Score deleted = scoreRepository.save(score(1, 8, 9));
+        Score inserted = score(2, 6, 6);
+
+        // The first batch read still sees the deleted row and not the inserted one,
+        // as it would when both commits land after the reload started reading
+        ScoreRepository reading = mock(ScoreRepository.class, AdditionalAnswers.delegatesTo(scoreRepository));
+        boolean[] fired = {false};
+        doAnswer(invocation -> {
+            if (!fired[0]) {
+                fired[0] = true;
+                store.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(deleted), null));
+                store.onScoreChanged(new ScoreChangedEvent(null, ScoreSnapshot.of(inserted)));
+            }
+            return scoreRepository.findAnalyticsColumns(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(reading).findAnalyticsColumns(anyLong(), any(Pageable.class));
+
+        ReflectionTestUtils.setField(store, "scoreRepository", reading);
+        try {
+            store.reload();
+        } finally {
+            ReflectionTestUtils.setField(store, "scoreRepository", scoreRepository);
+        }
+
+        AnalyticsGroup all = classAggregate();
+        assertTrue(fired[0]);
+        assertEquals(1, all.getScoreCount());
+        assertEquals(5.0, all.getAverageTbm());
+    }
+
+    private AnalyticsGroup classAggregate() {
+        AnalyticsFilter filter = new AnalyticsFilter();
+        filter.setClassName(CLASS_NAME);
+        filter.setSubject(SUBJECT);
+        filter.setYear(YEAR);
+        return store.aggregate(filter, true).toGroup(null);
+    }
+
+    // student is 1 or 2, an index into the seeded students
+    private Score score(int student, int ddggk, int ddgck) {
+        Score score = new Score(studentIds.get(student - 1), teacher.getId(), CLASS_NAME, SUBJECT, "1", YEAR);
+        score.setClassId(schoolClass.getId());
+        score.setDdggk(ddggk);
+        score.setDdgck(ddgck);
+        score.calculateTbm();
+        return score;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.studentapi.controller;
+
+import com.example.studentapi.model.SchoolClass;
+import com.example.studentapi.model.Score;
+import com.example.studentapi.model.Student;
+import com.example.studentapi.model.StudentClassAssignment;
+import com.example.studentapi.model.Teacher;
+import com.example.studentapi.model.TeacherClassAssignment;
+import com.example.studentapi.repository.ClassRepository;
+import com.example.studentapi.repository.ScoreRepository;
+import com.example.studentapi.repository.StudentClassAssignmentRepository;
+import com.example.studentapi.repository.StudentRepository;
+import com.example.studentapi.repository.TeacherClassAssignmentRepository;
+import com.example.studentapi.repository.TeacherRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints backed by JPQL projections must answer with a fixed number of statements
+ * (one projection query, plus the access check where the endpoint has one), however many
+ * rows they return, and must never fall back to lazy entity or collection loads.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadEndpointQueryCountTest {
+
+    private static final int YEAR = 2024;
+    private static final String SEMESTER = "1";
+    private static final String SUBJECT = "Toan";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private StudentClassAssignmentRepository studentAssignmentRepository;
+
+    @Autowired
+    private TeacherClassAssignmentRepository teacherAssignmentRepository;
+
+    private Statistics statistics;
+    private SchoolClass schoolClass;
+    private Teacher teacher;
+    private Score firstScore;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        teacher = teacherRepository.save(new Teacher("Nguyen Van A", Teacher.Gender.MEN, "Ha Noi",
+            LocalDate.of(1980, 1, 1), "teacher_a", "hash", "a@example.com"));
+
+        schoolClass = new SchoolClass();
+        schoolClass.setClassName("10A1");
+        schoolClass.setGradeLevel(10);
+        schoolClass.setAcademicYear(YEAR);
+        schoolClass.setSemester(SEMESTER);
+        schoolClass.setSubject(SUBJECT);
+        schoolClass = classRepository.save(schoolClass);
+
+        TeacherClassAssignment teacherAssignment = new TeacherClassAssignment();
+        teacherAssignment.setTeacherId(teacher.getId());
+        teacherAssignment.setSchoolClass(schoolClass);
+        teacherAssignment.setSubject(SUBJECT);
+        teacherAssignment.setAcademicYear(YEAR);
+        teacherAssignment.setSemester(SEMESTER);
+        teacherAssignmentRepository.save(teacherAssignment);
+
+        List<String> names = List.of("Tran Thi B", "Le Van C", "Pham Thi D");
+        for (int i = 0; i < names.size(); i++) {
+            Student student = studentRepository.save(
+                new Student(null, names.get(i), "WOMEN", "Ha Noi", LocalDate.of(2008, 1, i + 1)));
+
+            StudentClassAssignment studentAssignment = new StudentClassAssignment();
+            studentAssignment.setStudent(student);
+            studentAssignment.setClassEntity(schoolClass);
+            studentAssignment.setAcademicYear(YEAR);
+            studentAssignment.setSemester(SEMESTER);
+            studentAssignment.setStudentNumber(String.valueOf(i + 1));
+            studentAssignmentRepository.save(studentAssignment);
+
+            Score score = new Score(student.getId(), teacher.getId(), schoolClass.getClassName(), SUBJECT, SEMESTER, YEAR);
+            score.setClassId(schoolClass.getId());
+            score.setStudentName(student.getName());
+            score.setTeacherName(teacher.getName());
+            score.setDdgtx("8,9");
+            score.setDdggk(7);
+            score.setDdgck(8);
+            score.calculateTbm();
+            score = scoreRepository.save(score);
+            if (firstScore == null) {
+                firstScore = score;
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoreRepository.deleteAll();
+        studentAssignmentRepository.deleteAll();
+        teacherAssignmentRepository.deleteAll();
+        studentRepository.deleteAll();
+        classRepository.deleteAll();
+        teacherRepository.deleteAll();
+    }
+
+    // ========== SCORE ENDPOINTS ==========
+
+    @Test
+    void scoreListUsesOneStatement() throws Exception {
+        assertStatements(1, get("/api/scores"), 3);
+    }
+
+    @Test
+    void scoreByIdUsesOneStatement() throws Exception {
+        assertStatements(1, get("/api/scores/{id}", firstScore.getId()), -1);
+    }
+
+    // ========== CLASS ENDPOINTS ==========
+
+    @Test
+    void classListUsesOneStatement() throws Exception {
+        assertStatements(1, get("/api/classes"), 1);
+    }
+
+    @Test
+    void classByIdUsesOneStatement() throws Exception {
+        assertStatements(1, get("/api/classes/{id}", schoolClass.getId()), -1);
+    }
+
+    @Test
+    void teacherClassesUseOneStatement() throws Exception {
+        assertStatements(1, get("/api/classes/teacher/{teacherId}", teacher.getId()), 1);
+    }
+
+    @Test
+    void classTeachersUseOneStatement() throws Exception {
+        assertStatements(1, get("/api/classes/{classId}/teachers", schoolClass.getId())
+            .param("academicYear", String.valueOf(YEAR))
+            .param("semester", SEMESTER), 1);
+    }
+
+    @Test
+    void classScoresUseAccessCheckAndOneStatement() throws Exception {
+        // A first page shorter than the page size needs no separate count query
+        assertStatements(2, get("/api/classes/{classId}/scores", schoolClass.getId())
+            .param("teacherId", String.valueOf(teacher.getId())), -1);
+    }
+
+    // ========== ROSTER ENDPOINTS ==========
+
+    @Test
+    void rosterUsesAccessCheckAndOneStatement() throws Exception {
+        assertStatements(2, get("/api/classes/{classId}/students", schoolClass.getId())
+            .param("academicYear", String.valueOf(YEAR))
+            .param("semester", SEMESTER)
+            .param("teacherId", String.valueOf(teacher.getId())), 3);
+    }
+
+    @Test
+    void rosterPageUsesAccessCheckAndOneStatement() throws Exception {
+        assertStatements(2, get("/api/classes/{classId}/student-assignments", schoolClass.getId())
+            .param("teacherId", String.valueOf(teacher.getId())), -1);
+    }
+
+    @Test
+    void rosterPagesFollowNameOrder() throws Exception {
+        mockMvc.perform(get("/api/classes/{classId}/student-assignments", schoolClass.getId())
+                .param("teacherId", String.valueOf(teacher.getId()))
+                .param("page", "0").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].studentName", contains("Le Van C", "Pham Thi D")));
+        mockMvc.perform(get("/api/classes/{classId}/student-assignments", schoolClass.getId())
+                .param("teacherId", String.valueOf(teacher.getId()))
+                .param("page", "1").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[*].studentName", contains("Tran Thi B")));
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request, int expectedRows) throws Exception {
+        statistics.clear();
+
+        if (expectedRows >= 0) {
+            mockMvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(expectedRows)));
+        } else {
+            mockMvc.perform(request).andExpect(status().isOk());
+        }
+
+        assertEquals(expected, statistics.getPrepareStatementCount(), "prepared statements");
+        assertEquals(0, statistics.getEntityLoadCount(), "entity loads");
+        assertEquals(0, statistics.getCollectionLoadCount(), "collection loads");
+    }
+}
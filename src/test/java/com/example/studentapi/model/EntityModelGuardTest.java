@@ -0,0 +1,145 @@
+package com.example.studentapi.model;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the lean entity model: SchoolClass maps no collections, and equals/hashCode/toString
+ * never touch lazy associations, so loading or hashing an entity cannot pull in related rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class EntityModelGuardTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private PersistenceUnitUtil persistenceUnitUtil;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+    }
+
+    // ========== COLLECTION LOADS ==========
+
+    @Test
+    void schoolClassMapsNoCollections() {
+        assertTrue(entityManagerFactory.getMetamodel().entity(SchoolClass.class).getPluralAttributes().isEmpty());
+    }
+
+    @Test
+    void loadingSchoolClassIssuesOneStatementAndNoCollectionLoads() {
+        Long classId = entityManager.persistAndGetId(newClass("10A1"), Long.class);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        SchoolClass loaded = entityManager.find(SchoolClass.class, classId);
+        loaded.toString();
+        loaded.hashCode();
+        loaded.equals(newClass("10A2"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void scoreObjectMethodsLeaveAssociationsUninitialized() {
+        Student student = entityManager.persist(new Student(null, "Tran Thi B", "WOMEN", "Ha Noi", LocalDate.of(2008, 1, 1)));
+        Teacher teacher = entityManager.persist(new Teacher("Nguyen Van A", Teacher.Gender.MEN, "Ha Noi",
+            LocalDate.of(1980, 1, 1), "teacher_a", "hash", "a@example.com"));
+        SchoolClass schoolClass = entityManager.persist(newClass("10A1"));
+        Score score = new Score(student.getId(), teacher.getId(), schoolClass.getClassName(), "Toan", "1", 2024);
+        score.setClassId(schoolClass.getId());
+        Long pk = entityManager.persistAndGetId(score, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Score loaded = entityManager.find(Score.class, pk);
+        loaded.toString();
+        loaded.hashCode();
+        loaded.equals(score);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(persistenceUnitUtil.isLoaded(loaded, "student"));
+        assertFalse(persistenceUnitUtil.isLoaded(loaded, "schoolClass"));
+        assertFalse(persistenceUnitUtil.isLoaded(loaded, "teacher"));
+    }
+
+    // ========== IDENTITY-BASED EQUALITY ==========
+
+    @Test
+    void schoolClassEqualityFollowsId() {
+        SchoolClass first = newClass("10A1");
+        SchoolClass second = newClass("10A1");
+        assertNotEquals(first, second);
+
+        first.setId(1L);
+        second.setId(1L);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.setId(2L);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void studentEqualityFollowsId() {
+        Student first = new Student(null, "Tran Thi B", "WOMEN", "Ha Noi", LocalDate.of(2008, 1, 1));
+        Student second = new Student(null, "Tran Thi B", "WOMEN", "Ha Noi", LocalDate.of(2008, 1, 1));
+        assertNotEquals(first, second);
+
+        first.setId(7L);
+        second.setId(7L);
+        second.setName("Le Van C");
+        assertEquals(first, second);
+    }
+
+    @Test
+    void hashCodeIsStableAcrossPersist() {
+        SchoolClass schoolClass = newClass("10A1");
+        Set<SchoolClass> classes = new HashSet<>();
+        classes.add(schoolClass);
+
+        entityManager.persistAndFlush(schoolClass);
+
+        assertTrue(classes.contains(schoolClass));
+    }
+
+    private static SchoolClass newClass(String className) {
+        SchoolClass schoolClass = new SchoolClass();
+        schoolClass.setClassName(className);
+        schoolClass.setGradeLevel(10);
+        schoolClass.setAcademicYear(2024);
+        schoolClass.setSemester("1");
+        schoolClass.setSubject("Toan");
+        return schoolClass;
+    }
+}
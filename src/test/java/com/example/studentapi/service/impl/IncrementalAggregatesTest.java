@@ -0,0 +1,143 @@
+package com.example.studentapi.service.impl;
+
+import com.example.studentapi.event.ScoreChangedEvent;
+import com.example.studentapi.event.ScoreSnapshot;
+import com.example.studentapi.model.ClassScoreStats;
+import com.example.studentapi.model.Score;
+import com.example.studentapi.model.ScoreRollup;
+import com.example.studentapi.model.YearlyResult;
+import com.example.studentapi.repository.ScoreRollupRepository;
+import com.example.studentapi.service.ClassScoreStatsService;
+import com.example.studentapi.service.RollupService;
+import com.example.studentapi.service.YearlyResultService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Incremental maintenance of the derived score tables, driven directly through the listeners.
+ * The first write for a key seeds its row before locking it, so the seed must leave a row the
+ * listener can accumulate into.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IncrementalAggregatesTest {
+
+    private static final String CLASS_NAME = "10A1";
+    private static final String SUBJECT = "Toan";
+    private static final int YEAR = 2024;
+
+    @Autowired
+    private ClassScoreStatsService classScoreStatsService;
+
+    @Autowired
+    private YearlyResultService yearlyResultService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ScoreRollupRepository rollupRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // ========== CLASS SCORE STATS ==========
+
+    @Test
+    void firstScoreSeedsStatsRowWithHistogram() {
+        classScoreStatsService.onScoreChanged(insert(score(1L, "1", 8, 9)));
+        classScoreStatsService.onScoreChanged(insert(score(2L, "1", 4, 4)));
+        entityManager.flush();
+        entityManager.clear();
+
+        ClassScoreStats stats = classScoreStatsService.find(CLASS_NAME, SUBJECT, YEAR, "1").orElseThrow();
+        assertEquals(2, stats.getScoreCount());
+        assertEquals(2, stats.getGradedCount());
+        assertEquals(1, stats.getPassCount());
+        assertTrue(stats.hasHistogram());
+        assertEquals(2, stats.getHistogram().getTotal());
+    }
+
+    @Test
+    void removingLastScoreDeletesSeededStatsRow() {
+        Score score = score(1L, "1", 8, 9);
+        classScoreStatsService.onScoreChanged(insert(score));
+        classScoreStatsService.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(score), null));
+        entityManager.flush();
+
+        assertTrue(classScoreStatsService.find(CLASS_NAME, SUBJECT, YEAR, "1").isEmpty());
+    }
+
+    // ========== YEARLY RESULTS ==========
+
+    @Test
+    void firstScoreSeedsYearlyRowAndSecondSemesterCompletesIt() {
+        yearlyResultService.onScoreChanged(insert(score(1L, "1", 8, 9)));
+        yearlyResultService.onScoreChanged(insert(score(1L, "2", 6, 6)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<YearlyResult> results = yearlyResultService.getClassSubjectResults(CLASS_NAME, SUBJECT, YEAR);
+        assertEquals(1, results.size());
+        assertEquals("Student 1", results.get(0).getStudentName());
+        assertEquals(7.2, results.get(0).getHk1Tbm());
+        assertEquals(5.0, results.get(0).getHk2Tbm());
+        assertEquals(YearlyResult.yearlyTbm(7.2, 5.0), results.get(0).getYearlyTbm());
+    }
+
+    @Test
+    void removingOnlyScoreDeletesSeededYearlyRow() {
+        Score score = score(1L, "1", 8, 9);
+        yearlyResultService.onScoreChanged(insert(score));
+        yearlyResultService.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(score), null));
+        entityManager.flush();
+
+        assertTrue(yearlyResultService.getClassSubjectResults(CLASS_NAME, SUBJECT, YEAR).isEmpty());
+    }
+
+    // ========== SCORE ROLLUPS ==========
+
+    @Test
+    void firstScoreSeedsRollupRow() {
+        rollupService.onScoreChanged(insert(score(1L, "1", 8, 9)));
+        rollupService.onScoreChanged(insert(score(2L, "1", 4, 4)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ScoreRollup> rollups = rollupRepository.findAll();
+        assertEquals(1, rollups.size());
+        assertEquals(2, rollups.get(0).getScoreCount());
+        assertEquals(1, rollups.get(0).getPassCount());
+    }
+
+    @Test
+    void removingUnknownScoreSeedsNoRollupRow() {
+        rollupService.onScoreChanged(new ScoreChangedEvent(ScoreSnapshot.of(score(1L, "1", 8, 9)), null));
+        entityManager.flush();
+
+        assertTrue(rollupRepository.findAll().isEmpty());
+    }
+
+    private static ScoreChangedEvent insert(Score score) {
+        return new ScoreChangedEvent(null, ScoreSnapshot.of(score));
+    }
+
+    private static Score score(Long studentId, String semester, int ddggk, int ddgck) {
+        Score score = new Score(studentId, 1L, CLASS_NAME, SUBJECT, semester, YEAR);
+        score.setStudentName("Student " + studentId);
+        score.setDdggk(ddggk);
+        score.setDdgck(ddgck);
+        score.calculateTbm();
+        return score;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.studentapi.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-ID cost of building a score ID: the former regex chain plus String.format versus
+ * {@link ScoreIdCodec}. Run after test-compile with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main ScoreIdBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreIdBenchmark {
+
+    private Long teacherId = 12L;
+    private Long studentId = 3456L;
+    private Integer year = 2024;
+    private String semester = "1";
+    private String className = "10A1 Chuyên Toán";
+    private String subject = "Ngữ văn";
+    private String scoreId = ScoreIdCodec.builder()
+            .teacherId(teacherId).studentId(studentId).year(year).semester(semester)
+            .className(className).subject(subject).build();
+
+    @Benchmark
+    public String regexAndFormat() {
+        return String.format("%d_%d_%d_%s_%s_%s",
+            teacherId, studentId, year, semester, legacyCleanString(className), legacyCleanString(subject));
+    }
+
+    @Benchmark
+    public String codecBuild() {
+        return ScoreIdCodec.builder()
+                .teacherId(teacherId)
+                .studentId(studentId)
+                .year(year)
+                .semester(semester)
+                .className(className)
+                .subject(subject)
+                .build();
+    }
+
+    @Benchmark
+    public ScoreIdCodec.Parts codecDecode() {
+        return ScoreIdCodec.decode(scoreId);
+    }
+
+    // The removed Score.cleanString, kept verbatim as the baseline
+    private static String legacyCleanString(String input) {
+        if (input == null) return "";
+        return input
+            .toLowerCase()
+            .replaceAll("[àáạảãâầấậẩẫăằắặẳẵ]", "a")
+            .replaceAll("[èéẹẻẽêềếệểễ]", "e")
+            .replaceAll("[ìíịỉĩ]", "i")
+            .replaceAll("[òóọỏõôồốộổỗơờớợởỡ]", "o")
+            .replaceAll("[ùúụủũưừứựửữ]", "u")
+            .replaceAll("[ỳýỵỷỹ]", "y")
+            .replaceAll("[đ]", "d")
+            .replaceAll("[^a-zA-Z0-9]", "");
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.studentapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Score IDs are stored keys, so the table-driven transliteration must produce exactly what
+ * the former regex chain produced, and decode must recover what build encoded.
+ */
+class ScoreIdCodecTest {
+
+    private static final String VIETNAMESE_LOWER =
+        "àáạảãâầấậẩẫăằắặẳẵ" + "èéẹẻẽêềếệểễ" + "ìíịỉĩ" + "òóọỏõôồốộổỗơờớợởỡ" + "ùúụủũưừứựửữ" + "ỳýỵỷỹ" + "đ";
+
+    // ========== TRANSLITERATION PARITY ==========
+
+    @Test
+    void everyVietnameseLetterMatchesLegacyCleanString() {
+        String all = VIETNAMESE_LOWER + VIETNAMESE_LOWER.toUpperCase();
+        for (char c : all.toCharArray()) {
+            String input = String.valueOf(c);
+            assertEquals(legacyCleanString(input), VietnameseTransliterator.toAsciiKey(input),
+                () -> String.format("U+%04X", (int) c));
+        }
+        assertEquals(legacyCleanString(all), VietnameseTransliterator.toAsciiKey(all));
+    }
+
+    @Test
+    void everyTableCharMatchesLegacyCleanString() {
+        // Basic Latin through Latin Extended Additional, including punctuation and other scripts
+        for (int c = 0; c < 0x1F00; c++) {
+            String input = String.valueOf((char) c);
+            assertEquals(legacyCleanString(input), VietnameseTransliterator.toAsciiKey(input),
+                String.format("U+%04X", c));
+        }
+    }
+
+    @Test
+    void mixedNamesMatchLegacyCleanString() {
+        for (String input : List.of("10A1 Chuyên Toán", "Ngữ văn", "Đ", "Tiếng Anh", "GDCD & Công nghệ",
+                "Lịch sử - Địa lý", "12C_9", "", "   ")) {
+            assertEquals(legacyCleanString(input), VietnameseTransliterator.toAsciiKey(input), input);
+        }
+        assertEquals("", VietnameseTransliterator.toAsciiKey(null));
+    }
+
+    @Test
+    void builtIdMatchesLegacyFormat() {
+        String legacy = String.format("%d_%d_%d_%s_%s_%s",
+            12L, 3456L, 2024, "1", legacyCleanString("10A1 Chuyên Toán"), legacyCleanString("Ngữ văn"));
+
+        assertEquals(legacy, build(12L, 3456L, 2024, "1", "10A1 Chuyên Toán", "Ngữ văn"));
+        assertEquals("12_3456_2024_1_10a1chuyentoan_nguvan", legacy);
+    }
+
+    // ========== ROUND TRIP ==========
+
+    @Test
+    void decodeRecoversBuiltParts() {
+        ScoreIdCodec.Parts parts = ScoreIdCodec.decode(build(12L, 3456L, 2024, "1", "10A1 Chuyên Toán", "Ngữ văn"));
+
+        assertEquals(12L, parts.getTeacherId());
+        assertEquals(3456L, parts.getStudentId());
+        assertEquals(2024, parts.getYear());
+        assertEquals("1", parts.getSemester());
+        assertEquals("10a1chuyentoan", parts.getClassKey());
+        assertEquals("nguvan", parts.getSubjectKey());
+    }
+
+    @Test
+    void decodeKeepsSeparatorInSemester() {
+        // Class and subject keys never contain '_', so a semester that does is still recovered
+        ScoreIdCodec.Parts parts = ScoreIdCodec.decode(build(1L, 2L, 2023, "HK_2", "11B", "Đạo đức"));
+
+        assertEquals("HK_2", parts.getSemester());
+        assertEquals("11b", parts.getClassKey());
+        assertEquals("daoduc", parts.getSubjectKey());
+    }
+
+    @Test
+    void decodeAllowsEmptyKeys() {
+        ScoreIdCodec.Parts parts = ScoreIdCodec.decode(build(1L, 2L, 2024, "2", "!!", null));
+
+        assertEquals("2", parts.getSemester());
+        assertEquals("", parts.getClassKey());
+        assertEquals("", parts.getSubjectKey());
+    }
+
+    @Test
+    void decodeRejectsMalformedIds() {
+        for (String scoreId : List.of("", "12_3456_2024", "12_3456_2024_1_10a1", "x_3456_2024_1_10a1_toan",
+                "12_3456_year_1_10a1_toan", "12_3456_2024__toan")) {
+            assertThrows(IllegalArgumentException.class, () -> ScoreIdCodec.decode(scoreId), scoreId);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ScoreIdCodec.decode(null));
+    }
+
+    private static String build(Long teacherId, Long studentId, Integer year, String semester,
+                                String className, String subject) {
+        return ScoreIdCodec.builder()
+                .teacherId(teacherId)
+                .studentId(studentId)
+                .year(year)
+                .semester(semester)
+                .className(className)
+                .subject(subject)
+                .build();
+    }
+
+    // The removed Score.cleanString, kept verbatim as the reference
+    private static String legacyCleanString(String input) {
+        if (input == null) return "";
+        return input
+            .toLowerCase()
+            .replaceAll("[àáạảãâầấậẩẫăằắặẳẵ]", "a")
+            .replaceAll("[èéẹẻẽêềếệểễ]", "e")
+            .replaceAll("[ìíịỉĩ]", "i")
+            .replaceAll("[òóọỏõôồốộổỗơờớợởỡ]", "o")
+            .replaceAll("[ùúụủũưừứựửữ]", "u")
+            .replaceAll("[ỳýỵỷỹ]", "y")
+            .replaceAll("[đ]", "d")
+            .replaceAll("[^a-zA-Z0-9]", "");
+    }
+}